@@ -16,25 +16,34 @@ import javafx.scene.paint.Color;
 import com.calendar.app.controllers.CalendarViewController;
 import com.calendar.app.controllers.EventManagerController;
 import com.calendar.app.models.Event;
+import com.calendar.app.services.AuthService;
+import com.calendar.app.services.DashboardCounters;
 import com.calendar.app.services.DatabaseService;
+import com.calendar.app.services.EventArchiver;
+import com.calendar.app.services.EventStore;
 import com.calendar.app.services.RegistrationService;
 import com.calendar.app.utils.DatabaseConnection;
+import com.calendar.app.utils.FxTaskGroup;
 import com.calendar.app.utils.SessionManager;
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
 import java.time.LocalDateTime;
 import java.util.TimeZone;
 import java.util.Optional;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
-import java.sql.Date;
-import java.sql.Time;
+import java.sql.ResultSet;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 import java.util.Set;
+import java.util.List;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Properties;
 import java.io.File;
 import java.io.FileInputStream;
@@ -60,6 +69,15 @@ public class Main extends Application {
     private CalendarViewController calendarController;
     private EventManagerController eventManagerController;
     private DatabaseService databaseService;
+    private final AuthService authService = new AuthService();
+    // Background loads owned by whatever is currently in the main content area
+    private final FxTaskGroup viewTasks = new FxTaskGroup();
+    // Event dialog saves; never cancelled, so a started write always reports back
+    private final FxTaskGroup eventWrites = new FxTaskGroup();
+    // Message history shows the newest rows only; older ones age out via purgeNotificationLogs
+    private static final int MESSAGE_HISTORY_LIMIT = 500;
+    // A reminder fires for events starting within this many minutes of its target time
+    private static final int REMINDER_WINDOW_MINUTES = 5;
     private final ScheduledExecutorService notificationScheduler = Executors.newSingleThreadScheduledExecutor();
     private final Set<String> notifiedEventIds = new HashSet<>();
     
@@ -117,7 +135,9 @@ public class Main extends Application {
         // Handle window close
         primaryStage.setOnCloseRequest(e -> {
             System.out.println("Application closing...");
+            System.out.println(EventStore.metrics());
             notificationScheduler.shutdownNow();
+            DatabaseConnection.closeConnection();
             Platform.exit();
             System.exit(0);
         });
@@ -203,27 +223,28 @@ public class Main extends Application {
             String user = username.getText();
             String pass = password.getText();
             
-            System.out.println("Login attempt: " + user + " / " + pass);
-            
-            // Perform actual authentication
-            if (authenticateUser(user, pass)) {
-                status.setText(" Login successful! Loading dashboard");
-                status.setStyle("-fx-text-fill: #27ae60; -fx-font-weight: bold;");
-                
-                // Show appropriate dashboard based on role
-                new java.util.Timer().schedule(
-                    new java.util.TimerTask() {
-                        @Override
-                        public void run() {
-                            Platform.runLater(() -> showUserDashboard());
-                        }
-                    },
-                    1000
-                );
-            } else {
-                status.setText(" Invalid username or password");
+            System.out.println("Login attempt: " + user);
+            loginBtn.setDisable(true);
+            status.setText(" Signing in…");
+            status.setStyle("-fx-text-fill: #7f8c8d;");
+            
+            // One lookup off the FX thread; the dashboard opens as soon as it returns
+            viewTasks.run(authService.authenticateAsync(user, pass), authenticated -> {
+                loginBtn.setDisable(false);
+                if (authenticated != null) {
+                    SessionManager.setCurrentUser(authenticated);
+                    status.setText(" Login successful! Loading dashboard");
+                    status.setStyle("-fx-text-fill: #27ae60; -fx-font-weight: bold;");
+                    showUserDashboard();
+                } else {
+                    status.setText(" Invalid username or password");
+                    status.setStyle("-fx-text-fill: #e74c3c; -fx-font-weight: bold;");
+                }
+            }, ex -> {
+                loginBtn.setDisable(false);
+                status.setText(" Login failed, please try again");
                 status.setStyle("-fx-text-fill: #e74c3c; -fx-font-weight: bold;");
-            }
+            });
         });
         
         // Forgot password link
@@ -310,40 +331,6 @@ public class Main extends Application {
         return rootLayout;
     }
 
-    private boolean authenticateUser(String username, String password) {
-        // Check if user exists and password is correct
-        if (databaseService.validateUser(username, password)) {
-            // Get user details and set session
-            // For now, create a basic user object - in a real app you'd fetch from DB
-            com.calendar.app.models.User user = new com.calendar.app.models.User();
-            user.setUsername(username);
-            user.setPassword(password);
-            
-            // Set default role
-            user.setRole("USER");
-            
-            // Fetch actual user ID from database to ensure correct foreign key mapping
-            try {
-                Connection conn = DatabaseConnection.getReusableConnection();
-                PreparedStatement stmt = conn.prepareStatement("SELECT id, full_name, email FROM users WHERE username = ?");
-                stmt.setString(1, username);
-                var rs = stmt.executeQuery();
-                if (rs.next()) {
-                    user.setId(rs.getInt("id"));
-                    if (rs.getString("full_name") != null) user.setFullName(rs.getString("full_name"));
-                    if (rs.getString("email") != null) user.setEmail(rs.getString("email"));
-                }
-            } catch (SQLException e) {
-                System.err.println("Error fetching user details: " + e.getMessage());
-            }
-            
-            SessionManager.setCurrentUser(user);
-            
-            return true;
-        }
-        return false;
-    }
-    
     private void showRegistrationScreen() {
         System.out.println("Opening registration screen...");
         
@@ -352,6 +339,8 @@ public class Main extends Application {
         registrationStage.setTitle("Create Account - Event Management System");
         registrationStage.initModality(Modality.NONE);
         registrationStage.initOwner(primaryStage);
+        FxTaskGroup registrationTasks = new FxTaskGroup();
+        registrationStage.setOnHidden(e -> registrationTasks.cancelAll());
         
         // Create registration form
         
@@ -470,6 +459,20 @@ public class Main extends Application {
         // Add all to form
         form.getChildren().addAll(logoContainer, formTitle, grid, termsBox, errorLabel, successLabel, buttonBox);
         
+        // Flag a taken username or email while it is typed; the in-memory
+        // filter answers most keystrokes without a query
+        RegistrationService registrationService = new RegistrationService();
+        fields[1].textProperty().addListener((obs, oldVal, newVal) -> {
+            if (newVal.isBlank()) return;
+            registrationTasks.run(registrationService.isUsernameAvailableAsync(newVal), available ->
+                showAvailability(fields[1], newVal, available, "Username already exists", errorLabel));
+        });
+        fields[2].textProperty().addListener((obs, oldVal, newVal) -> {
+            if (!newVal.contains("@")) return;
+            registrationTasks.run(registrationService.isEmailAvailableAsync(newVal), available ->
+                showAvailability(fields[2], newVal, available, "Email already registered", errorLabel));
+        });
+        
         // Set up button actions
         registerButton.setOnAction(event -> {
             System.out.println("Register button clicked");
@@ -538,35 +541,41 @@ public class Main extends Application {
                 return;
             }
             
-            // Try to register using RegistrationService
-            RegistrationService registrationService = new RegistrationService();
-            RegistrationService.RegistrationResult result = registrationService.registerUser(username, password, email, fullName);
-            
-            if (result.isSuccess()) {
-                errorLabel.setVisible(false);
-                successLabel.setText("? " + result.getMessage());
-                successLabel.setVisible(true);
+            // Try to register using RegistrationService, off the FX thread since it hashes the password
+            registerButton.setDisable(true);
+            registrationTasks.run(registrationService.registerUserAsync(username, password, email, fullName), result -> {
+                registerButton.setDisable(false);
+                if (result.isSuccess()) {
+                    errorLabel.setVisible(false);
+                    successLabel.setText("? " + result.getMessage());
+                    successLabel.setVisible(true);
                 
-                // Show success alert
-                Alert successAlert = new Alert(Alert.AlertType.INFORMATION);
-                successAlert.setTitle("Registration Successful");
-                successAlert.setHeaderText("Account Created");
-                successAlert.setContentText("Account for '" + username + "' has been created successfully!\nYou can now login with your credentials.");
-                successAlert.show();
+                    // Show success alert
+                    Alert successAlert = new Alert(Alert.AlertType.INFORMATION);
+                    successAlert.setTitle("Registration Successful");
+                    successAlert.setHeaderText("Account Created");
+                    successAlert.setContentText("Account for '" + username + "' has been created successfully!\nYou can now login with your credentials.");
+                    successAlert.show();
                 
-                // Clear form
-                for (Control field : fields) {
-                    if (field instanceof TextInputControl) {
-                        ((TextInputControl)field).clear();
+                    // Clear form
+                    for (Control field : fields) {
+                        if (field instanceof TextInputControl) {
+                            ((TextInputControl)field).clear();
+                        }
                     }
-                }
                 
-                System.out.println("Registration successful for: " + username);
-            } else {
-                errorLabel.setText("? " + result.getMessage());
+                    System.out.println("Registration successful for: " + username);
+                } else {
+                    errorLabel.setText("? " + result.getMessage());
+                    errorLabel.setVisible(true);
+                    successLabel.setVisible(false);
+                }
+            }, ex -> {
+                registerButton.setDisable(false);
+                errorLabel.setText("? Registration failed. Please try again.");
                 errorLabel.setVisible(true);
                 successLabel.setVisible(false);
-            }
+            });
         });
         
         clearButton.setOnAction(event -> {
@@ -801,6 +810,18 @@ public class Main extends Application {
         });
     }
     
+    // Shows or clears the "taken" message for a field, unless it was edited since the check started
+    private void showAvailability(TextField field, String checked, boolean available, String takenMessage, Label errorLabel) {
+        if (!field.getText().equals(checked)) return;
+        String message = "? " + takenMessage;
+        if (!available) {
+            errorLabel.setText(message);
+            errorLabel.setVisible(true);
+        } else if (message.equals(errorLabel.getText())) {
+            errorLabel.setVisible(false);
+        }
+    }
+    
     // Helper method to create styled text fields
     private TextField createFormField(String prompt) {
         TextField field = new TextField();
@@ -925,17 +946,17 @@ public class Main extends Application {
         mainContent.getChildren().addAll(headerBox, contentContainer);
         
         // Initial View - Dashboard Stats
-        updateMainContent(contentContainer, createStatsView());
+        updateMainContent(contentContainer, this::createStatsView);
     
         // --- SET LAYOUT ---
         rootLayout.setLeft(sidebar);
         rootLayout.setCenter(mainContent);
     
         // --- ACTIONS ---
-        dashboardButton.setOnAction(e -> updateMainContent(contentContainer, createStatsView()));
-        calendarButton.setOnAction(e -> updateMainContent(contentContainer, calendarController.getCalendarView()));
+        dashboardButton.setOnAction(e -> updateMainContent(contentContainer, this::createStatsView));
+        calendarButton.setOnAction(e -> updateMainContent(contentContainer, calendarController::getCalendarView));
         addEventButton.setOnAction(e -> showEventDialog(null, null));
-        viewEventsButton.setOnAction(e -> updateMainContent(contentContainer, eventManagerController.getEventManagerView()));
+        viewEventsButton.setOnAction(e -> updateMainContent(contentContainer, eventManagerController::getEventManagerView));
         settingsButton.setOnAction(e -> showUserSettings());
     
         // --- SCENE & STAGE ---
@@ -958,52 +979,27 @@ public class Main extends Application {
         System.out.println("Redesigned user dashboard displayed");
     }
     
-    private void updateMainContent(VBox container, Node content) {
+    private void updateMainContent(VBox container, Supplier<Node> view) {
+        // Drop loads still running for the view being replaced
+        viewTasks.cancelAll();
+        calendarController.cancelPendingLoads();
+        Node content = view.get();
         container.getChildren().clear();
         container.getChildren().add(content);
         VBox.setVgrow(content, Priority.ALWAYS);
     }
 
-    private int getEventCount(String type) {
-        if (SessionManager.getCurrentUser() == null) return 0;
+    /**
+     * Reads the dashboard counts (in memory once loaded) and writes each into its card's
+     * value label. Cards start out showing "…"; the load belongs to the given
+     * task group so it is dropped if the user leaves the view first.
+     */
+    private void fillStatCards(FxTaskGroup tasks, Map<String, VBox> cardsByType) {
+        if (SessionManager.getCurrentUser() == null) return;
         int userId = SessionManager.getCurrentUser().getId();
-        String sql;
-        
-        try {
-            Connection conn = DatabaseConnection.getReusableConnection();
-            PreparedStatement stmt;
-            
-            switch(type) {
-                case "ALL":
-                    sql = "SELECT COUNT(*) FROM events WHERE user_id = ?";
-                    stmt = conn.prepareStatement(sql);
-                    stmt.setInt(1, userId);
-                    break;
-                case "UPCOMING":
-                    sql = "SELECT COUNT(*) FROM events WHERE user_id = ? AND ((event_date = CURDATE() AND start_time > CURTIME()) OR (event_date > CURDATE() AND event_date <= DATE_ADD(CURDATE(), INTERVAL 7 DAY)))";
-                    stmt = conn.prepareStatement(sql);
-                    stmt.setInt(1, userId);
-                    break;
-                case "COMPLETED":
-                    sql = "SELECT COUNT(*) FROM events WHERE user_id = ? AND (event_date < CURDATE() OR (event_date = CURDATE() AND end_time < CURTIME()))";
-                    stmt = conn.prepareStatement(sql);
-                    stmt.setInt(1, userId);
-                    break;
-                default: // Category
-                    sql = "SELECT COUNT(*) FROM events WHERE user_id = ? AND category = ?";
-                    stmt = conn.prepareStatement(sql);
-                    stmt.setInt(1, userId);
-                    stmt.setString(2, type);
-                    break;
-            }
-            
-            var rs = stmt.executeQuery();
-            if (rs.next()) return rs.getInt(1);
-            
-        } catch (Exception e) {
-            System.err.println("Error fetching stats: " + e.getMessage());
-        }
-        return 0;
+        tasks.run(databaseService.getDashboardStatsAsync(userId), stats ->
+            cardsByType.forEach((type, card) ->
+                ((Label) card.getChildren().get(1)).setText(String.valueOf(stats.getCount(type)))));
     }
 
     private Node createStatsView() {
@@ -1020,17 +1016,28 @@ public class Main extends Application {
         statsGrid.getColumnConstraints().addAll(colConstraints, colConstraints, colConstraints);
         
         // Fetch real statistics
-        VBox totalEventsCard = createAnalyticsCard("Total Events", String.valueOf(getEventCount("ALL")), "", "#3498db");
-        VBox completedEventsCard = createAnalyticsCard("Completed Events", String.valueOf(getEventCount("COMPLETED")), "", "#f39c12");
+        VBox totalEventsCard = createAnalyticsCard("Total Events", "…", "", "#3498db");
+        VBox completedEventsCard = createAnalyticsCard("Completed Events", "…", "", "#f39c12");
         
-        VBox upcomingEventsCard = createAnalyticsCard("Upcoming", String.valueOf(getEventCount("UPCOMING")), "", "#2ecc71");
+        VBox upcomingEventsCard = createAnalyticsCard("Upcoming", "…", "", "#2ecc71");
         
         // Category cards
-        VBox meetingsCard = createAnalyticsCard("Meetings", String.valueOf(getEventCount("Meeting")), "", "#9b59b6");
-        VBox personalCard = createAnalyticsCard("Personal", String.valueOf(getEventCount("Personal")), "", "#e74c3c");
-        VBox workCard = createAnalyticsCard("Work", String.valueOf(getEventCount("Work")), "", "#34495e");
-        VBox socialCard = createAnalyticsCard("Social", String.valueOf(getEventCount("Social")), "", "#1abc9c");
-        VBox otherCard = createAnalyticsCard("Other", String.valueOf(getEventCount("Other")), "", "#95a5a6");
+        VBox meetingsCard = createAnalyticsCard("Meetings", "…", "", "#9b59b6");
+        VBox personalCard = createAnalyticsCard("Personal", "…", "", "#e74c3c");
+        VBox workCard = createAnalyticsCard("Work", "…", "", "#34495e");
+        VBox socialCard = createAnalyticsCard("Social", "…", "", "#1abc9c");
+        VBox otherCard = createAnalyticsCard("Other", "…", "", "#95a5a6");
+        
+        Map<String, VBox> cardsByType = new LinkedHashMap<>();
+        cardsByType.put("ALL", totalEventsCard);
+        cardsByType.put("COMPLETED", completedEventsCard);
+        cardsByType.put("UPCOMING", upcomingEventsCard);
+        cardsByType.put("Meeting", meetingsCard);
+        cardsByType.put("Personal", personalCard);
+        cardsByType.put("Work", workCard);
+        cardsByType.put("Social", socialCard);
+        cardsByType.put("Other", otherCard);
+        fillStatCards(viewTasks, cardsByType);
         
         statsGrid.add(totalEventsCard, 0, 0);
         statsGrid.add(completedEventsCard, 1, 0);
@@ -1073,22 +1080,17 @@ public class Main extends Application {
     private void checkReminders() {
         if (SessionManager.getCurrentUser() == null) return;
 
+        // Check for events in the next 3 days
+        LocalDateTime now = LocalDateTime.now();
         try {
-            // Check for events in the next 3 days
-            String sql = "SELECT * FROM events WHERE user_id = ? AND ((event_date = CURDATE() AND start_time > CURTIME()) OR (event_date > CURDATE() AND event_date <= DATE_ADD(CURDATE(), INTERVAL 3 DAY))) ORDER BY event_date, start_time";
-            var stmt = DatabaseConnection.getReusableConnection().prepareStatement(sql);
-            stmt.setInt(1, SessionManager.getCurrentUser().getId());
-            var rs = stmt.executeQuery();
-            
             StringBuilder reminders = new StringBuilder();
-            while (rs.next()) {
-                LocalDate date = rs.getDate("event_date").toLocalDate();
-                String title = rs.getString("title");
+            for (Event event : databaseService.getEventsStartingBetween(SessionManager.getCurrentUser().getId(),
+                    now, now.toLocalDate().plusDays(4).atStartOfDay())) {
+                LocalDate date = event.getEventDate();
+                String title = event.getTitle();
                 
-                String phone = null;
-                String email = null;
-                try { phone = rs.getString("contact_phone"); } catch (SQLException e) {}
-                try { email = rs.getString("contact_email"); } catch (SQLException e) {}
+                String phone = event.getContactPhone();
+                String email = event.getContactEmail();
                 
                 reminders.append(String.format("• %s on %s", title, date));
                 if (phone != null && !phone.isEmpty()) reminders.append(" [Ph: ").append(phone).append("]");
@@ -1107,8 +1109,14 @@ public class Main extends Application {
     private void startNotificationService() {
         // Check for upcoming events every minute
         notificationScheduler.scheduleAtFixedRate(this::checkAndNotifyEvents, 0, 1, TimeUnit.MINUTES);
-        // Check for past events to mark as completed
-        notificationScheduler.scheduleAtFixedRate(this::autoCompleteEvents, 0, 1, TimeUnit.MINUTES);
+        // Drop delete markers older than any client's sync window
+        notificationScheduler.scheduleAtFixedRate(databaseService::purgeTombstones, 1, 6, TimeUnit.HOURS);
+        // Keep message history within the retention window
+        notificationScheduler.scheduleAtFixedRate(databaseService::purgeNotificationLogs, 2, 60, TimeUnit.MINUTES);
+        // Move long-completed events out of the hot events table
+        notificationScheduler.scheduleAtFixedRate(new EventArchiver()::archiveCompletedEvents, 5, 360, TimeUnit.MINUTES);
+        // Correct the dashboard counts for writes made by other instances
+        notificationScheduler.scheduleAtFixedRate(DashboardCounters::reconcile, 15, 15, TimeUnit.MINUTES);
     }
 
     private void checkAndNotifyEvents() {
@@ -1118,51 +1126,37 @@ public class Main extends Application {
         if (!smsNotificationsEnabled && !emailNotificationsEnabled) return;
         
         try {
-            Connection conn = DatabaseConnection.getReusableConnection();
             LocalDateTime now = LocalDateTime.now();
+            // The next hour and a bit covers every window below
+            List<Event> upcoming = databaseService.getEventsStartingBetween(SessionManager.getCurrentUser().getId(),
+                    now.minusMinutes(REMINDER_WINDOW_MINUTES), now.plusHours(1).plusMinutes(REMINDER_WINDOW_MINUTES + 1));
             
             // Check for events starting now
-            checkEventsForTime(conn, now, "STARTING_NOW");
+            checkEventsForTime(upcoming, now, "STARTING_NOW");
             
             // Check for events starting in 1 hour (Long warning)
-            checkEventsForTime(conn, now.plusHours(1), "REMINDER_1H");
+            checkEventsForTime(upcoming, now.plusHours(1), "REMINDER_1H");
 
             // Check for events starting in 5 minutes (Short warning / Fallback)
-            checkEventsForTime(conn, now.plusMinutes(5), "REMINDER_5M");
+            checkEventsForTime(upcoming, now.plusMinutes(5), "REMINDER_5M");
             
         } catch (Exception e) {
             System.err.println("Notification check error: " + e.getMessage());
         }
     }
 
-    private void checkEventsForTime(Connection conn, LocalDateTime targetTime, String type) throws SQLException {
-        LocalTime time = targetTime.toLocalTime();
-        LocalDate date = targetTime.toLocalDate();
-        
-        LocalTime startWindow = time.minusMinutes(5);
-        LocalTime endWindow = time.plusMinutes(5);
+    private void checkEventsForTime(List<Event> upcoming, LocalDateTime targetTime, String type) {
+        // Compared as date-times, so a window that crosses midnight needs no special case
+        LocalDateTime startWindow = targetTime.minusMinutes(REMINDER_WINDOW_MINUTES);
+        LocalDateTime endWindow = targetTime.plusMinutes(REMINDER_WINDOW_MINUTES);
         
-        String sql;
-        if (startWindow.isAfter(endWindow)) {
-            sql = "SELECT * FROM events WHERE user_id = ? AND event_date = ? " +
-                  "AND (start_time >= ? OR start_time <= ?)";
-        } else {
-            sql = "SELECT * FROM events WHERE user_id = ? AND event_date = ? " +
-                  "AND start_time BETWEEN ? AND ?";
-        }
-        
-        PreparedStatement stmt = conn.prepareStatement(sql);
-        stmt.setInt(1, SessionManager.getCurrentUser().getId());
-        stmt.setDate(2, Date.valueOf(date));
-        stmt.setTime(3, Time.valueOf(startWindow));
-        stmt.setTime(4, Time.valueOf(endWindow));
-        
-        var rs = stmt.executeQuery();
-        
-        while (rs.next()) {
-            int eventId = rs.getInt("id");
-            String notificationKey = eventId + "_" + type;
+        for (Event event : upcoming) {
+            LocalDateTime start = event.getEventDate().atTime(event.getStartTime());
+            if (start.isBefore(startWindow) || start.isAfter(endWindow)) continue;
             
+            int eventId = event.getId();
+            String notificationKey = eventId + "_" + type;
+        
             // Special Logic: If checking 5 min reminder, skip if 1 hour reminder was already sent
             if ("REMINDER_5M".equals(type)) {
                 String oneHourKey = eventId + "_REMINDER_1H";
@@ -1172,21 +1166,18 @@ public class Main extends Application {
             }
 
             if (!notifiedEventIds.contains(notificationKey)) {
-                String title = rs.getString("title");
-                java.text.SimpleDateFormat sdf = new java.text.SimpleDateFormat("hh:mm a");
-                String startTime = sdf.format(rs.getTime("start_time"));
+                String title = event.getTitle();
+                String startTime = event.getStartTime().format(java.time.format.DateTimeFormatter.ofPattern("hh:mm a"));
                 String email = SessionManager.getCurrentUser().getEmail();
-                String eventContactPhone = null;
-                String eventContactEmail = null;
-                try { eventContactPhone = rs.getString("contact_phone"); } catch (SQLException e) {}
-                try { eventContactEmail = rs.getString("contact_email"); } catch (SQLException e) {}
-                
+                String eventContactPhone = event.getContactPhone();
+                String eventContactEmail = event.getContactEmail();
+            
                 System.out.println("Triggering notification (" + type + ") for event: " + title + " at " + startTime);
-                
+            
                 String subject;
                 String messageBody;
                 String smsMessage;
-                
+            
                 if ("REMINDER_1H".equals(type)) {
                     subject = "Reminder: " + title + " (1 Hour)";
                     messageBody = "Reminder: Your event '" + title + "' starts in 1 hour at " + startTime;
@@ -1216,13 +1207,13 @@ public class Main extends Application {
                     }
                     sendSMSNotification(targetPhoneBuilder.toString(), smsMessage);
                 }
-                
+            
                 // Show on UI
                 String finalPhone = eventContactPhone;
                 String finalEmail = eventContactEmail;
                 String finalTitle = title;
                 String finalBody = messageBody;
-                
+            
                 Platform.runLater(() -> {
                     Alert alert = new Alert(Alert.AlertType.INFORMATION);
                     alert.setTitle("Event Reminder");
@@ -1233,35 +1224,8 @@ public class Main extends Application {
                     alert.setContentText(content);
                     alert.show();
                 });
-                
-                notifiedEventIds.add(notificationKey);
-            }
-        }
-    }
-
-    private void autoCompleteEvents() {
-        if (SessionManager.getCurrentUser() == null) return;
-        
-        try {
-            Connection conn = DatabaseConnection.getReusableConnection();
-            // Update status to COMPLETED for past events
-            // This moves them logically to a "Completed" state in the database
-            String sql = "UPDATE events SET status = 'COMPLETED' WHERE user_id = ? AND (event_date < CURDATE() OR (event_date = CURDATE() AND end_time < CURTIME())) AND (status IS NULL OR status != 'COMPLETED')";
             
-            PreparedStatement stmt = conn.prepareStatement(sql);
-            stmt.setInt(1, SessionManager.getCurrentUser().getId());
-            stmt.executeUpdate();
-            
-        } catch (SQLException e) {
-            // Auto-create status column if it doesn't exist
-            if (e.getMessage().contains("Unknown column")) {
-                try {
-                    Connection conn = DatabaseConnection.getReusableConnection();
-                    conn.createStatement().execute("ALTER TABLE events ADD COLUMN status VARCHAR(20) DEFAULT 'SCHEDULED'");
-                    System.out.println("Added 'status' column to events table.");
-                } catch (SQLException ex) {
-                    System.err.println("Failed to add status column: " + ex.getMessage());
-                }
+                notifiedEventIds.add(notificationKey);
             }
         }
     }
@@ -1553,8 +1517,7 @@ public class Main extends Application {
         // SQL to insert log - ensure table 'notification_logs' exists
         String sql = "INSERT INTO notification_logs (user_id, type, recipient, message, bulk_id, status, sent_at) VALUES (?, ?, ?, ?, ?, ?, NOW())";
         
-        try {
-            Connection conn = DatabaseConnection.getReusableConnection();
+        try (Connection conn = DatabaseConnection.getConnection()) {
             try (PreparedStatement stmt = conn.prepareStatement(sql)) {
                 stmt.setInt(1, SessionManager.getCurrentUser().getId());
                 stmt.setString(2, type);
@@ -1630,9 +1593,8 @@ public class Main extends Application {
         
         table.getColumns().addAll(typeCol, recipientCol, messageCol, statusCol, timeCol, actionCol);
         
-        try {
-            Connection conn = DatabaseConnection.getReusableConnection();
-            PreparedStatement stmt = conn.prepareStatement("SELECT * FROM notification_logs WHERE user_id = ? ORDER BY sent_at DESC");
+        try (Connection conn = DatabaseConnection.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement("SELECT type, recipient, message, status, sent_at FROM notification_logs WHERE user_id = ? ORDER BY sent_at DESC LIMIT " + MESSAGE_HISTORY_LIMIT)) {
             stmt.setInt(1, SessionManager.getCurrentUser().getId());
             var rs = stmt.executeQuery();
             while(rs.next()) {
@@ -1651,16 +1613,14 @@ public class Main extends Application {
         // Clear History Button
         Button clearBtn = new Button("Clear History");
         clearBtn.setStyle("-fx-background-color: #3cd9e7ff; -fx-text-fill: white; -fx-font-weight: bold; -fx-cursor: hand;");
+        FxTaskGroup historyWrites = new FxTaskGroup();
+        stage.setOnHidden(e -> historyWrites.cancelAll());
         clearBtn.setOnAction(e -> {
-            try {
-                Connection conn = DatabaseConnection.getReusableConnection();
-                PreparedStatement stmt = conn.prepareStatement("DELETE FROM notification_logs WHERE user_id = ?");
-                stmt.setInt(1, SessionManager.getCurrentUser().getId());
-                stmt.executeUpdate();
-                table.getItems().clear();
-            } catch (Exception ex) {
-                System.err.println("Error clearing logs: " + ex.getMessage());
-            }
+            clearBtn.setDisable(true);
+            historyWrites.run(databaseService.clearNotificationLogsAsync(SessionManager.getCurrentUser().getId()), cleared -> {
+                if (cleared) table.getItems().clear();
+                clearBtn.setDisable(false);
+            });
         });
         HBox bottomBar = new HBox(clearBtn);
         bottomBar.setAlignment(Pos.CENTER_RIGHT);
@@ -1728,6 +1688,9 @@ public class Main extends Application {
         dialog.initOwner(primaryStage);
         dialog.initModality(Modality.NONE); // allow minimize and parent interaction
         dialog.setResizable(true);
+        // Detail loads and conflict checks; dropped if the dialog is closed first
+        FxTaskGroup dialogTasks = new FxTaskGroup();
+        dialog.setOnHidden(e -> dialogTasks.cancelAll());
         
         GridPane grid = new GridPane();
         grid.setHgap(10);
@@ -1799,24 +1762,14 @@ public class Main extends Application {
             amPmBox.setValue(amPm);
             
             // Check if event is completed/past and show badge
-            if (eventToEdit.getEventDate().isBefore(LocalDate.now()) || 
-               (eventToEdit.getEventDate().equals(LocalDate.now()) && eventToEdit.getEndTime().isBefore(LocalTime.now()))) {
+            if (eventToEdit.isCompleted()) {
                 Label completedLabel = new Label("COMPLETED");
                 completedLabel.setStyle("-fx-background-color: #27ae60; -fx-text-fill: white; -fx-padding: 5 10; -fx-background-radius: 10; -fx-font-weight: bold;");
                 grid.add(completedLabel, 1, 9);
             }
             
-            // Fetch contact details
-            try {
-                Connection conn = DatabaseConnection.getReusableConnection();
-                PreparedStatement stmt = conn.prepareStatement("SELECT contact_phone, contact_email FROM events WHERE id = ?");
-                stmt.setInt(1, eventToEdit.getId());
-                var rs = stmt.executeQuery();
-                if (rs.next()) {
-                    phoneField.setText(rs.getString("contact_phone"));
-                    emailField.setText(rs.getString("contact_email"));
-                }
-            } catch (SQLException e) { e.printStackTrace(); }
+            // The list projection carries the phone; the email is loaded below
+            phoneField.setText(eventToEdit.getContactPhone());
         }
         
         grid.add(new Label("Title:"), 0, 0);
@@ -1844,6 +1797,25 @@ public class Main extends Application {
         Button cancelBtn = createStyledButton("Cancel", "#95a5a6", 100, 40);
         
         if (eventToEdit != null) {
+            // Contact email isn't in the list/calendar projections. Until it has loaded an
+            // update would blank the stored contact fields, so Update waits for it
+            saveBtn.setDisable(true);
+            Label detailError = new Label("Couldn't load the event's contact details; it can't be updated right now.");
+            detailError.setStyle("-fx-text-fill: #e74c3c;");
+            detailError.setWrapText(true);
+            dialogTasks.run(databaseService.getEventDetailsAsync(eventToEdit.getId(), eventToEdit.getUserId()), details -> {
+                if (details == null) {
+                    grid.add(detailError, 1, 8);
+                    return;
+                }
+                phoneField.setText(details.getContactPhone());
+                emailField.setText(details.getContactEmail());
+                saveBtn.setDisable(false);
+            }, error -> {
+                System.err.println("Error loading event details: " + error.getMessage());
+                grid.add(detailError, 1, 8);
+            });
+            
             Button deleteBtn = createStyledButton("Delete", "#e05c4dff", 100, 40);
             deleteBtn.setOnAction(e -> {
                 Alert confirm = new Alert(Alert.AlertType.CONFIRMATION);
@@ -1852,13 +1824,22 @@ public class Main extends Application {
                 confirm.setContentText("Are you sure you want to delete this event? This cannot be undone.");
                 
                 if (confirm.showAndWait().orElse(ButtonType.CANCEL) == ButtonType.OK) {
-                    try {
-                        Connection conn = DatabaseConnection.getReusableConnection();
-                        conn.createStatement().execute("DELETE FROM events WHERE id = " + eventToEdit.getId());
-                        dialog.close();
-                    } catch (SQLException ex) {
-                        showAlert("Error", "Failed to delete event: " + ex.getMessage());
-                    }
+                    // deleteEvent also covers archived rows and drops the event from EventStore and DashboardCounters
+                    deleteBtn.setDisable(true);
+                    dialogTasks.run(databaseService.deleteEventAsync(eventToEdit.getId(), eventToEdit.getUserId()), deleted -> {
+                        if (deleted) {
+                            dialog.close();
+                            if (eventManagerController != null) {
+                                eventManagerController.refreshTable();
+                            }
+                        } else {
+                            deleteBtn.setDisable(false);
+                            showAlert("Error", "Failed to delete event.");
+                        }
+                    }, error -> {
+                        deleteBtn.setDisable(false);
+                        showAlert("Error", "Failed to delete event: " + error.getMessage());
+                    });
                 }
             });
             buttons.getChildren().addAll(saveBtn, deleteBtn, cancelBtn);
@@ -1910,9 +1891,24 @@ public class Main extends Application {
                 return;
             }
             
-            try {
+            // Warn about double bookings before anything is written
+            Event candidate = eventToEdit != null ? new Event(eventToEdit) : new Event();
+            candidate.setUserId(SessionManager.getCurrentUser() != null ? SessionManager.getCurrentUser().getId() : 0);
+            candidate.setLocation(locationField.getText());
+            candidate.setEventDate(date);
+            candidate.setStartTime(startTime);
+            candidate.setEndTime(endTime);
+            // Disabled from the check until the write finishes, so a second click can't save twice
+            saveBtn.setDisable(true);
+            dialogTasks.run(databaseService.findConflictsAsync(candidate), conflicts -> {
+                if (!conflicts.isEmpty() && !confirmDespiteConflicts(candidate, conflicts)) {
+                    saveBtn.setDisable(false);
+                    return;
+                }
+            
+                Event toSave;
                 if (eventToEdit == null) {
-                    Event newEvent = new Event(
+                    toSave = new Event(
                         title,
                         "",
                         locationField.getText(),
@@ -1922,47 +1918,81 @@ public class Main extends Application {
                         categoryBox.getValue(),
                         SessionManager.getCurrentUser() != null ? SessionManager.getCurrentUser().getId() : 0
                     );
-                    saveEventToDatabase(newEvent, phoneField.getText(), emailField.getText());
                 } else {
-                    eventToEdit.setTitle(title);
-                    eventToEdit.setDescription("");
-                    eventToEdit.setLocation(locationField.getText());
-                    eventToEdit.setEventDate(date);
-                    eventToEdit.setStartTime(startTime);
-                    eventToEdit.setEndTime(endTime);
-                    eventToEdit.setCategory(categoryBox.getValue());
-                    updateEventInDatabase(eventToEdit, phoneField.getText(), emailField.getText());
+                    // A copy: the list and calendar keep showing the original until the write succeeds
+                    toSave = new Event(eventToEdit);
+                    toSave.setTitle(title);
+                    toSave.setDescription("");
+                    toSave.setLocation(locationField.getText());
+                    toSave.setEventDate(date);
+                    toSave.setStartTime(startTime);
+                    toSave.setEndTime(endTime);
+                    toSave.setCategory(categoryBox.getValue());
                 }
+                toSave.setContactPhone(phoneField.getText());
+                toSave.setContactEmail(emailField.getText());
                 
-                System.out.println("Event saved/updated successfully.");
-                
-                String smsMsg = smsCheckBox.isSelected() ? "\nSMS Notification scheduled." : "";
-                
-                Alert success = new Alert(Alert.AlertType.INFORMATION);
-                success.setTitle("Success");
-                success.setHeaderText("Event Created");
-                success.setContentText("Event '" + title + "' added for " + date + " at " + startTime + "." + smsMsg);
-                success.showAndWait();
-                
-                System.out.println("Event processed: " + title);
-                dialog.close();
-                
-                if (eventManagerController != null) {
-                    eventManagerController.refreshTable();
-                }
-            } catch (Exception ex) {
-                Alert error = new Alert(Alert.AlertType.ERROR);
-                error.setTitle("Error");
-                error.setHeaderText("Failed to Create Event");
-                error.setContentText("Error: " + ex.getMessage());
-                error.showAndWait();
-            }
+                // Not tied to the dialog: a write that has started must still report back
+                eventWrites.run(eventToEdit == null
+                        ? databaseService.createEventWithContactsAsync(toSave)
+                        : databaseService.updateEventWithContactsAsync(toSave), saved -> {
+                    System.out.println("Event saved/updated successfully.");
+                    
+                    String smsMsg = smsCheckBox.isSelected() ? "\nSMS Notification scheduled." : "";
+                    
+                    Alert success = new Alert(Alert.AlertType.INFORMATION);
+                    success.setTitle("Success");
+                    success.setHeaderText("Event Created");
+                    success.setContentText("Event '" + title + "' added for " + date + " at " + startTime + "." + smsMsg);
+                    success.showAndWait();
+                    
+                    System.out.println("Event processed: " + title);
+                    dialog.close();
+                    
+                    if (eventManagerController != null) {
+                        eventManagerController.refreshTable();
+                    }
+                }, ex -> {
+                    saveBtn.setDisable(false);
+                    Alert error = new Alert(Alert.AlertType.ERROR);
+                    error.setTitle("Error");
+                    error.setHeaderText("Failed to Create Event");
+                    error.setContentText("Error: " + ex.getMessage());
+                    error.showAndWait();
+                });
+            }, error -> {
+                saveBtn.setDisable(false);
+                showAlert("Error", "Couldn't check for scheduling conflicts: " + error.getMessage());
+            });
         });
         
         dialog.centerOnScreen();
         dialog.show();
     }
 
+    // Lists the clashing events and asks whether to save anyway
+    private boolean confirmDespiteConflicts(Event candidate, List<Event> conflicts) {
+        DateTimeFormatter time = DateTimeFormatter.ofPattern("h:mm a");
+        StringBuilder details = new StringBuilder();
+        for (Event other : conflicts) {
+            // No end time: just the start, as EventIndex treats it
+            String span = other.getEventDate() + " " + other.getStartTime().format(time)
+                    + (other.getEndTime() != null ? "–" + other.getEndTime().format(time) : "");
+            if (other.getUserId() == candidate.getUserId()) {
+                details.append("• ").append(other.getTitle()).append(", ").append(span).append("\n");
+            } else {
+                // Someone else's event: only say the place is taken
+                details.append("• ").append(other.getLocation()).append(" is booked ").append(span).append("\n");
+            }
+        }
+        
+        Alert confirm = new Alert(Alert.AlertType.CONFIRMATION);
+        confirm.setTitle("Scheduling Conflict");
+        confirm.setHeaderText("This overlaps " + conflicts.size() + (conflicts.size() == 1 ? " event" : " events"));
+        confirm.setContentText(details + "\nSave anyway?");
+        return confirm.showAndWait().orElse(ButtonType.CANCEL) == ButtonType.OK;
+    }
+    
     private void styleTextArea(TextArea area) {
         area.setStyle("-fx-background-color: rgba(248, 249, 250, 0.7); -fx-border-color: #e0e0e0; -fx-border-radius: 10; -fx-background-radius: 10; -fx-padding: 5; -fx-font-size: 14px;");
         area.focusedProperty().addListener((obs, oldVal, newVal) -> {
@@ -1990,106 +2020,6 @@ public class Main extends Application {
         box.setPrefHeight(35);
     }
 
-    private void saveEventToDatabase(Event event, String contactPhone, String contactEmail) throws SQLException {
-        String sql = "INSERT INTO events (title, location, event_date, start_time, end_time, category, user_id, contact_phone, contact_email) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
-        
-        try {
-            Connection conn = DatabaseConnection.getReusableConnection();
-            // Note: Not closing connection as it is reusable
-            
-            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                stmt.setString(1, event.getTitle());
-                stmt.setString(2, event.getLocation());
-                stmt.setDate(3, Date.valueOf(event.getEventDate()));
-                stmt.setTime(4, Time.valueOf(event.getStartTime()));
-                stmt.setTime(5, Time.valueOf(event.getEndTime()));
-                stmt.setString(6, event.getCategory());
-                stmt.setInt(7, event.getUserId());
-                stmt.setString(8, contactPhone);
-                stmt.setString(9, contactEmail);
-                
-                stmt.executeUpdate();
-            }
-        } catch (SQLException e) {
-            // Auto-fix for missing columns (Error 1054: Unknown column)
-            if (e.getMessage().contains("Unknown column")) {
-                System.out.println("Database schema mismatch. Attempting to fix...");
-                try {
-                    Connection conn = DatabaseConnection.getReusableConnection();
-                    java.sql.Statement stmt = conn.createStatement();
-                    try { stmt.execute("ALTER TABLE events ADD COLUMN contact_phone VARCHAR(50)"); } catch (Exception ex) {}
-                    try { stmt.execute("ALTER TABLE events ADD COLUMN contact_email VARCHAR(100)"); } catch (Exception ex) {}
-                    
-                    // Retry insert
-                    try (PreparedStatement retryStmt = conn.prepareStatement(sql)) {
-                        retryStmt.setString(1, event.getTitle());
-                        retryStmt.setString(2, event.getLocation());
-                        retryStmt.setDate(3, Date.valueOf(event.getEventDate()));
-                        retryStmt.setTime(4, Time.valueOf(event.getStartTime()));
-                        retryStmt.setTime(5, Time.valueOf(event.getEndTime()));
-                        retryStmt.setString(6, event.getCategory());
-                        retryStmt.setInt(7, event.getUserId());
-                        retryStmt.setString(8, contactPhone);
-                        retryStmt.setString(9, contactEmail);
-                        retryStmt.executeUpdate();
-                        return;
-                    }
-                } catch (Exception ex) {
-                    System.err.println("Auto-fix failed: " + ex.getMessage());
-                }
-            }
-            throw e;
-        }
-    }
-    
-    private void updateEventInDatabase(Event event, String contactPhone, String contactEmail) throws SQLException {
-        String sql = "UPDATE events SET title=?, location=?, event_date=?, start_time=?, end_time=?, category=?, contact_phone=?, contact_email=? WHERE id=?";
-        try {
-            Connection conn = DatabaseConnection.getReusableConnection();
-            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                stmt.setString(1, event.getTitle());
-                stmt.setString(2, event.getLocation());
-                stmt.setDate(3, Date.valueOf(event.getEventDate()));
-                stmt.setTime(4, Time.valueOf(event.getStartTime()));
-                stmt.setTime(5, Time.valueOf(event.getEndTime()));
-                stmt.setString(6, event.getCategory());
-                stmt.setString(7, contactPhone);
-                stmt.setString(8, contactEmail);
-                stmt.setInt(9, event.getId());
-                stmt.executeUpdate();
-            }
-        } catch (SQLException e) {
-            // Auto-fix for missing columns (Error 1054: Unknown column)
-            if (e.getMessage().contains("Unknown column")) {
-                System.out.println("Database schema mismatch on update. Attempting to fix...");
-                try {
-                    Connection conn = DatabaseConnection.getReusableConnection();
-                    java.sql.Statement stmt = conn.createStatement();
-                    try { stmt.execute("ALTER TABLE events ADD COLUMN contact_phone VARCHAR(50)"); } catch (Exception ex) {}
-                    try { stmt.execute("ALTER TABLE events ADD COLUMN contact_email VARCHAR(100)"); } catch (Exception ex) {}
-                    
-                    // Retry update
-                    try (PreparedStatement retryStmt = conn.prepareStatement(sql)) {
-                        retryStmt.setString(1, event.getTitle());
-                        retryStmt.setString(2, event.getLocation());
-                        retryStmt.setDate(3, Date.valueOf(event.getEventDate()));
-                        retryStmt.setTime(4, Time.valueOf(event.getStartTime()));
-                        retryStmt.setTime(5, Time.valueOf(event.getEndTime()));
-                        retryStmt.setString(6, event.getCategory());
-                        retryStmt.setString(7, contactPhone);
-                        retryStmt.setString(8, contactEmail);
-                        retryStmt.setInt(9, event.getId());
-                        retryStmt.executeUpdate();
-                        return; // Exit after successful retry
-                    }
-                } catch (Exception ex) {
-                    System.err.println("Auto-fix on update failed: " + ex.getMessage());
-                }
-            }
-            throw e; // Rethrow original exception if not handled
-        }
-    }
-    
     private void showAlert(String title, String message) {
         Alert alert = new Alert(Alert.AlertType.INFORMATION);
         alert.setTitle(title);
@@ -2102,6 +2032,10 @@ public class Main extends Application {
         System.out.println("Logging out and returning to login screen...");
         
         // Clear session
+        if (SessionManager.getCurrentUser() != null) {
+            EventStore.invalidate(SessionManager.getCurrentUser().getId());
+            DashboardCounters.invalidate(SessionManager.getCurrentUser().getId());
+        }
         SessionManager.logout();
         notifiedEventIds.clear();
         
@@ -2118,6 +2052,8 @@ public class Main extends Application {
         statsStage.setTitle("My Statistics");
         statsStage.initModality(Modality.APPLICATION_MODAL);
         statsStage.initOwner(primaryStage);
+        FxTaskGroup statsTasks = new FxTaskGroup();
+        statsStage.setOnHidden(e -> statsTasks.cancelAll());
         
         BorderPane mainLayout = new BorderPane();
         mainLayout.setPadding(new Insets(20));
@@ -2135,10 +2071,17 @@ public class Main extends Application {
         statsGrid.setAlignment(Pos.CENTER);
         
         // Real user statistics
-        VBox totalEventsCard = createAnalyticsCard("Total Events", String.valueOf(getEventCount("ALL")), "All recorded events", "#3498db");
-        VBox upcomingEventsCard = createAnalyticsCard("Upcoming", String.valueOf(getEventCount("UPCOMING")), "Events in next 7 days", "#2ecc71");
-        VBox completedEventsCard = createAnalyticsCard("Completed", String.valueOf(getEventCount("COMPLETED")), "Events in the past", "#f39c12");
-        VBox meetingsCard = createAnalyticsCard("Meetings", String.valueOf(getEventCount("Meeting")), "Category: Meeting", "#9b59b6");
+        VBox totalEventsCard = createAnalyticsCard("Total Events", "…", "All recorded events", "#3498db");
+        VBox upcomingEventsCard = createAnalyticsCard("Upcoming", "…", "Events in next 7 days", "#2ecc71");
+        VBox completedEventsCard = createAnalyticsCard("Completed", "…", "Events in the past", "#f39c12");
+        VBox meetingsCard = createAnalyticsCard("Meetings", "…", "Category: Meeting", "#9b59b6");
+        
+        Map<String, VBox> cardsByType = new LinkedHashMap<>();
+        cardsByType.put("ALL", totalEventsCard);
+        cardsByType.put("UPCOMING", upcomingEventsCard);
+        cardsByType.put("COMPLETED", completedEventsCard);
+        cardsByType.put("Meeting", meetingsCard);
+        fillStatCards(statsTasks, cardsByType);
         
         statsGrid.add(totalEventsCard, 0, 0);
         statsGrid.add(upcomingEventsCard, 1, 0);
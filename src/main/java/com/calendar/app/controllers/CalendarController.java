@@ -7,9 +7,9 @@ import javafx.stage.Stage;
 import java.time.LocalDate;
 import java.time.YearMonth;
 import com.calendar.app.models.Event;
-import com.calendar.app.utils.DatabaseConnection;
+import com.calendar.app.services.DatabaseService;
+import com.calendar.app.utils.FxTaskGroup;
 import com.calendar.app.utils.SessionManager;
-import java.sql.*;
 
 public class CalendarController {
     
@@ -19,6 +19,8 @@ public class CalendarController {
     @FXML private ListView<Event> eventsListView;
     
     private YearMonth currentYearMonth;
+    private final DatabaseService databaseService = new DatabaseService();
+    private final FxTaskGroup loads = new FxTaskGroup();
     
     @FXML
     public void initialize() {
@@ -78,27 +80,14 @@ public class CalendarController {
     private void loadEventsForMonth() {
         eventsListView.getItems().clear();
         
-        String sql = "SELECT id, title, description, location, start_time FROM events WHERE MONTH(start_time) = ? AND YEAR(start_time) = ? AND user_id = ? ORDER BY start_time";
-        
-        try (PreparedStatement stmt = DatabaseConnection.getReusableConnection().prepareStatement(sql)) {
-            
-            stmt.setInt(1, currentYearMonth.getMonthValue());
-            stmt.setInt(2, currentYearMonth.getYear());
-            stmt.setInt(3, SessionManager.getCurrentUser().getId());
-            
-            ResultSet rs = stmt.executeQuery();
-            while (rs.next()) {
-                Event event = new Event();
-                event.setId(rs.getInt("id"));
-                event.setTitle(rs.getString("title"));
-                event.setDescription(rs.getString("description"));
-                event.setLocation(rs.getString("location"));
-                eventsListView.getItems().add(event);
+        YearMonth requestedMonth = currentYearMonth;
+        loads.cancelAll();
+        loads.run(databaseService.getEventsInRangeAsync(SessionManager.getCurrentUser().getId(),
+                requestedMonth.atDay(1), requestedMonth.plusMonths(1).atDay(1)), events -> {
+            if (requestedMonth.equals(currentYearMonth)) {
+                eventsListView.getItems().setAll(events);
             }
-            
-        } catch (SQLException e) {
-            System.err.println("Error loading events: " + e.getMessage());
-        }
+        });
     }
     
     @FXML
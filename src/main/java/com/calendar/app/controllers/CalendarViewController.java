@@ -18,8 +18,15 @@ import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.util.function.Consumer;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
 import com.calendar.app.models.Event;
 import com.calendar.app.services.DatabaseService;
+import com.calendar.app.services.EventStore;
+import com.calendar.app.utils.FxTaskGroup;
 import com.calendar.app.utils.SessionManager;
 
 public class CalendarViewController {
@@ -30,6 +37,30 @@ public class CalendarViewController {
     private Consumer<LocalDate> onDateClicked;
     private Consumer<Event> onEventClicked;
     private DatabaseService databaseService = new DatabaseService();
+    private final FxTaskGroup loads = new FxTaskGroup();
+    
+    // Month buckets (events by day), so flipping months is served from memory.
+    // Only touched on the FX thread.
+    private static final int MAX_CACHED_MONTHS = 12;
+    // Re-read after this even without a local write, for changes made elsewhere
+    private static final long MONTH_TTL_MS = 60_000;
+    private record MonthBucket(Map<LocalDate, List<Event>> eventsByDate, long loadedAt) {}
+    private final Map<YearMonth, MonthBucket> monthCache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<YearMonth, MonthBucket> eldest) {
+            return size() > MAX_CACHED_MONTHS;
+        }
+    };
+    private final Set<YearMonth> monthsLoading = new HashSet<>();
+    // What the cached buckets were built from; a change to either drops them all
+    private int cacheUserId;
+    private long cacheChangeCount = -1;
+    // Bumped when the cache is dropped so loads started before it are ignored
+    private int cacheGeneration;
+    
+    // The grid on screen, waiting for its months if they weren't cached
+    private Map<LocalDate, VBox> shownDayCells;
+    private boolean indicatorsShown;
     
     public void setOnDateClicked(Consumer<LocalDate> onDateClicked) {
         this.onDateClicked = onDateClicked;
@@ -171,24 +202,20 @@ public class CalendarViewController {
         LocalDate firstOfMonth = currentYearMonth.atDay(1);
         int dayOfWeek = firstOfMonth.getDayOfWeek().getValue() % 7; // 0=Sun, 6=Sat
         
-        int daysInMonth = currentYearMonth.lengthOfMonth();
         int rows = 6; // Maximum rows needed
         
-        // Fetch events for the current month to display indicators
-        int currentUserId = SessionManager.getCurrentUser() != null ? SessionManager.getCurrentUser().getId() : 0;
-        List<Event> allEvents = databaseService.getAllEvents();
-        List<Event> userEvents = new ArrayList<>();
-        for (Event e : allEvents) {
-            if (e.getUserId() == currentUserId) {
-                userEvents.add(e);
-            }
-        }
+        // The grid always shows 6 full weeks, starting on the Sunday on or before the 1st
+        LocalDate windowStart = firstOfMonth.minusDays(dayOfWeek);
+        LocalDate windowEnd = windowStart.plusDays(rows * 7L); // exclusive
+        
+        Map<LocalDate, VBox> dayCells = new HashMap<>();
         
         // Create day cells
-        for (int day = 1; day <= daysInMonth; day++) {
-            LocalDate date = currentYearMonth.atDay(day);
-            int column = (dayOfWeek + day - 1) % 7;
-            int row = (dayOfWeek + day - 1) / 7;
+        for (int i = 0; i < rows * 7; i++) {
+            LocalDate date = windowStart.plusDays(i);
+            int column = i % 7;
+            int row = i / 7;
+            boolean inMonth = YearMonth.from(date).equals(currentYearMonth);
             
             VBox dayCell = new VBox(5);
             dayCell.setMinHeight(70);
@@ -196,44 +223,20 @@ public class CalendarViewController {
             dayCell.setPadding(new Insets(5));
 
             // Day number
-            Label dayNumber = new Label(String.valueOf(day));
-            dayNumber.setStyle("-fx-font-weight: bold; -fx-font-size: 16px;");
+            Label dayNumber = new Label(String.valueOf(date.getDayOfMonth()));
+            if (inMonth) {
+                dayNumber.setStyle("-fx-font-weight: bold; -fx-font-size: 16px;");
+            } else {
+                dayNumber.setStyle("-fx-font-size: 14px; -fx-text-fill: #bbb;");
+            }
             
-            // Highlight today
+            // Highlight today; days of the neighbouring months are greyed out
             if (date.equals(LocalDate.now())) {
                 dayCell.setStyle("-fx-border-color: #3498db; -fx-border-width: 2; -fx-border-radius: 5; -fx-background-color: white; -fx-padding: 5;");
-            } else {
+            } else if (inMonth) {
                 dayCell.setStyle("-fx-border-color: #ddd; -fx-border-radius: 5; -fx-padding: 5; -fx-background-color: white;");
-            }
-            
-            // Add event indicators (dots)
-            List<Event> dayEvents = new ArrayList<>();
-            for (Event e : userEvents) {
-                if (e.getEventDate().equals(date)) {
-                    dayEvents.add(e);
-                }
-            }
-            
-            if (!dayEvents.isEmpty()) {
-                HBox indicators = new HBox(2);
-                indicators.setAlignment(Pos.CENTER);
-                for (int k = 0; k < Math.min(dayEvents.size(), 3); k++) {
-                    Event event = dayEvents.get(k);
-                    Circle dot = new Circle(4, Color.web("#e74c3c"));
-                    dot.setCursor(javafx.scene.Cursor.HAND);
-                    Tooltip.install(dot, new Tooltip(event.getTitle()));
-                    dot.setOnMouseClicked(ev -> {
-                        ev.consume(); // Prevent click from reaching the day cell
-                        if (onEventClicked != null) onEventClicked.accept(event);
-                    });
-                    indicators.getChildren().add(dot);
-                }
-                if (dayEvents.size() > 3) {
-                    Label plus = new Label("+");
-                    plus.setStyle("-fx-font-size: 8px;");
-                    indicators.getChildren().add(plus);
-                }
-                dayCell.getChildren().add(indicators);
+            } else {
+                dayCell.setStyle("-fx-border-color: #eee; -fx-padding: 5; -fx-background-color: #fafafa;");
             }
             
             // Make day interactive
@@ -246,22 +249,109 @@ public class CalendarViewController {
             
             dayCell.getChildren().add(dayNumber);
             calendarGrid.add(dayCell, column, row);
+            dayCells.put(date, dayCell);
         }
         
-        // Fill empty cells
-        int totalCells = rows * 7;
-        int filledCells = daysInMonth + dayOfWeek;
-        
-        for (int i = filledCells; i < totalCells; i++) {
-            int column = i % 7;
-            int row = i / 7;
-            
-            VBox emptyCell = new VBox();
-            emptyCell.setMinHeight(70);
-            emptyCell.setMaxWidth(Double.MAX_VALUE);
-            emptyCell.setStyle("-fx-border-color: #eee; -fx-background-color: #fafafa;");
-            calendarGrid.add(emptyCell, column, row);
+        // The grid is on screen already; event indicators follow from the month
+        // cache, at once if the visible months are in it, else when they load
+        shownDayCells = dayCells;
+        indicatorsShown = false;
+        int currentUserId = SessionManager.getCurrentUser() != null ? SessionManager.getCurrentUser().getId() : 0;
+        validateMonthCache(currentUserId);
+        for (int offset = -1; offset <= 1; offset++) {
+            loadMonth(currentUserId, currentYearMonth.plusMonths(offset));
+        }
+        showIndicatorsIfReady();
+        // Prefetch one month further each way so the next Previous/Next is instant too
+        loadMonth(currentUserId, currentYearMonth.minusMonths(2));
+        loadMonth(currentUserId, currentYearMonth.plusMonths(2));
+    }
+    
+    // Drops every bucket when the user or their events changed since they were built
+    private void validateMonthCache(int userId) {
+        long changeCount = EventStore.changeCount();
+        if (userId != cacheUserId || changeCount != cacheChangeCount) {
+            monthCache.clear();
+            monthsLoading.clear();
+            cacheGeneration++;
+            cacheUserId = userId;
+            cacheChangeCount = changeCount;
+        }
+    }
+    
+    private MonthBucket cachedMonth(YearMonth month) {
+        MonthBucket bucket = monthCache.get(month);
+        if (bucket != null && System.currentTimeMillis() - bucket.loadedAt() >= MONTH_TTL_MS) {
+            monthCache.remove(month);
+            return null;
         }
+        return bucket;
+    }
+    
+    private void loadMonth(int userId, YearMonth month) {
+        if (cachedMonth(month) != null || !monthsLoading.add(month)) return;
+        int generation = cacheGeneration;
+        loads.run(databaseService.getEventsInRangeAsync(userId, month.atDay(1), month.plusMonths(1).atDay(1)), monthEvents -> {
+            if (generation != cacheGeneration) return; // cache was dropped meanwhile
+            monthsLoading.remove(month);
+            Map<LocalDate, List<Event>> eventsByDate = new HashMap<>();
+            for (Event e : monthEvents) {
+                eventsByDate.computeIfAbsent(e.getEventDate(), d -> new ArrayList<>()).add(e);
+            }
+            monthCache.put(month, new MonthBucket(eventsByDate, System.currentTimeMillis()));
+            showIndicatorsIfReady();
+        }, ex -> {
+            if (generation == cacheGeneration) monthsLoading.remove(month);
+            System.err.println("Failed to load events for " + month + ": " + ex.getMessage());
+        });
+    }
+    
+    // Adds the indicators once all three months the grid touches are cached
+    private void showIndicatorsIfReady() {
+        if (indicatorsShown || shownDayCells == null) return;
+        Map<LocalDate, List<Event>> eventsByDate = new HashMap<>();
+        for (int offset = -1; offset <= 1; offset++) {
+            MonthBucket bucket = cachedMonth(currentYearMonth.plusMonths(offset));
+            if (bucket == null) return;
+            for (Map.Entry<LocalDate, List<Event>> day : bucket.eventsByDate().entrySet()) {
+                if (shownDayCells.containsKey(day.getKey())) eventsByDate.put(day.getKey(), day.getValue());
+            }
+        }
+        indicatorsShown = true;
+        addEventIndicators(shownDayCells, eventsByDate);
+    }
+    
+    private void addEventIndicators(Map<LocalDate, VBox> dayCells, Map<LocalDate, List<Event>> eventsByDate) {
+        for (Map.Entry<LocalDate, List<Event>> entry : eventsByDate.entrySet()) {
+            List<Event> dayEvents = entry.getValue();
+            HBox indicators = new HBox(2);
+            indicators.setAlignment(Pos.CENTER);
+            for (int k = 0; k < Math.min(dayEvents.size(), 3); k++) {
+                Event event = dayEvents.get(k);
+                Circle dot = new Circle(4, Color.web("#e74c3c"));
+                dot.setCursor(javafx.scene.Cursor.HAND);
+                Tooltip.install(dot, new Tooltip(event.getTitle()));
+                dot.setOnMouseClicked(ev -> {
+                    ev.consume(); // Prevent click from reaching the day cell
+                    if (onEventClicked != null) onEventClicked.accept(event);
+                });
+                indicators.getChildren().add(dot);
+            }
+            if (dayEvents.size() > 3) {
+                Label plus = new Label("+");
+                plus.setStyle("-fx-font-size: 8px;");
+                indicators.getChildren().add(plus);
+            }
+            dayCells.get(entry.getKey()).getChildren().add(0, indicators);
+        }
+    }
+    
+    /**
+     * Drops any event load still in flight, e.g. when the calendar is navigated away from.
+     */
+    public void cancelPendingLoads() {
+        loads.cancelAll();
+        monthsLoading.clear();
     }
     
     private void showAllEvents() {
@@ -1,8 +1,10 @@
 package com.calendar.app.controllers;
 
+import javafx.animation.PauseTransition;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.geometry.Insets;
+import javafx.geometry.Orientation;
 import javafx.scene.Node;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
@@ -10,18 +12,17 @@ import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.layout.*;
 import javafx.stage.Stage;
+import javafx.util.Duration;
 import com.calendar.app.models.Event;
 import com.calendar.app.services.DatabaseService;
+import com.calendar.app.utils.FxTaskGroup;
 import com.calendar.app.utils.SessionManager;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.LocalTime;
+import java.sql.Timestamp;
 import java.util.List;
-import java.util.ArrayList;
 import java.util.function.Consumer;
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.SQLException;
 import java.io.File;
 import java.io.PrintWriter;
 import javafx.stage.FileChooser;
@@ -31,6 +32,20 @@ public class EventManagerController {
     private ObservableList<Event> events;
     private TableView<Event> eventsTable;
     private DatabaseService databaseService = new DatabaseService();
+    // Saves run off the FX thread; never cancelled, a started write must report back
+    private final FxTaskGroup writes = new FxTaskGroup();
+    
+    // The table is filled a page at a time as the user scrolls
+    private static final int PAGE_SIZE = 100;
+    private final FxTaskGroup pageLoads = new FxTaskGroup();
+    private final FxTaskGroup detailLoads = new FxTaskGroup();
+    private boolean loadingPage;
+    private boolean lastPageLoaded;
+    // Search text the loaded pages are filtered by; part of the page query, so paging covers every match
+    private String searchTerm = "";
+    private final PauseTransition searchPause = new PauseTransition(Duration.millis(300));
+    // Server time of the last sync; Refresh asks only for changes after it
+    private Timestamp syncWatermark;
     private final DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("HH:mm");
     private Consumer<Event> onEditEventRequest;
 
@@ -42,7 +57,8 @@ public class EventManagerController {
     public Node getEventManagerView() {
         // Load events ONLY for the current user to ensure Edit/Delete works
         int currentUserId = SessionManager.getCurrentUser() != null ? SessionManager.getCurrentUser().getId() : 0;
-        events = FXCollections.observableArrayList(loadUserEvents());
+        events = FXCollections.observableArrayList();
+        searchTerm = "";
         
         BorderPane mainLayout = new BorderPane();
         mainLayout.setPadding(new Insets(20));
@@ -56,8 +72,12 @@ public class EventManagerController {
         Label title = new Label("My Event Manager");
         title.setStyle("-fx-font-size: 28px; -fx-font-weight: bold; -fx-text-fill: #2c3e50;");
         
-        Label countLabel = new Label(events.size() + " events found");
+        Label countLabel = new Label("… events found");
         countLabel.setStyle("-fx-font-size: 14px; -fx-text-fill: #7f8c8d; -fx-padding: 0 0 0 20;");
+        if (currentUserId != 0) {
+            pageLoads.run(databaseService.getDashboardStatsAsync(currentUserId),
+                    stats -> countLabel.setText(stats.getTotal() + " events found"));
+        }
         
         header.getChildren().addAll(title, countLabel);
         mainLayout.setTop(header);
@@ -82,8 +102,10 @@ public class EventManagerController {
         TextField searchField = new TextField();
         searchField.setPromptText("Search events...");
         searchField.setPrefWidth(200);
+        // Re-query once typing pauses rather than on every keystroke
+        searchPause.setOnFinished(e -> filterEvents(searchField.getText()));
         searchField.textProperty().addListener((observable, oldValue, newValue) -> {
-            filterEvents(newValue);
+            searchPause.playFromStart();
         });
         
         HBox.setHgrow(searchField, Priority.ALWAYS);
@@ -107,7 +129,8 @@ public class EventManagerController {
         timeCol.setCellValueFactory(cellData -> {
             Event event = cellData.getValue();
             return new javafx.beans.property.SimpleStringProperty(
-                event.getStartTime().format(timeFormatter) + " - " + event.getEndTime().format(timeFormatter)
+                event.getStartTime().format(timeFormatter)
+                        + (event.getEndTime() != null ? " - " + event.getEndTime().format(timeFormatter) : "")
             );
         });
         timeCol.setPrefWidth(120);
@@ -134,6 +157,19 @@ public class EventManagerController {
         
         eventsTable.getColumns().addAll(titleCol, dateCol, timeCol, locationCol, phoneCol, categoryCol, userCol);
         
+        // Fetch the next page when the user scrolls near the bottom. The scroll
+        // bar only exists once the table has a skin.
+        eventsTable.skinProperty().addListener((obs, oldSkin, newSkin) -> {
+            for (Node node : eventsTable.lookupAll(".scroll-bar")) {
+                if (node instanceof ScrollBar bar && bar.getOrientation() == Orientation.VERTICAL) {
+                    bar.valueProperty().addListener((o, oldValue, newValue) -> {
+                        if (newValue.doubleValue() >= bar.getMax() * 0.9) loadNextPage();
+                    });
+                }
+            }
+        });
+        resetPaging();
+        
         // Status bar
         HBox statusBar = new HBox();
         statusBar.setPadding(new Insets(10, 0, 0, 0));
@@ -265,15 +301,16 @@ public class EventManagerController {
             return null;
         });
         
-        dialog.showAndWait().ifPresent(newEvent -> {
-            if (databaseService.addEvent(newEvent)) {
-                events.add(newEvent);
+        dialog.showAndWait().ifPresent(newEvent -> writes.run(databaseService.addEventAsync(newEvent), saved -> {
+            if (saved) {
+                newEvent.setUserName(SessionManager.getCurrentUser().getUsername());
+                placeEvent(newEvent);
                 eventsTable.refresh();
                 showAlert("Success", "Event '" + newEvent.getTitle() + "' added successfully!");
             } else {
                 showAlert("Error", "Failed to save event to database.");
             }
-        });
+        }));
     }
     
     private void editSelectedEvent() {
@@ -315,7 +352,7 @@ public class EventManagerController {
         
         TextField startTimeField = new TextField(selected.getStartTime().format(timeFormatter));
         
-        TextField endTimeField = new TextField(selected.getEndTime().format(timeFormatter));
+        TextField endTimeField = new TextField(selected.getEndTime() != null ? selected.getEndTime().format(timeFormatter) : "");
         
         ComboBox<String> categoryBox = new ComboBox<>();
         categoryBox.getItems().addAll("Meeting", "Personal", "Work", "Social", "Other");
@@ -374,14 +411,14 @@ public class EventManagerController {
             return null;
         });
         
-        dialog.showAndWait().ifPresent(updatedEvent -> {
-            if (databaseService.updateEvent(updatedEvent)) {
+        dialog.showAndWait().ifPresent(updatedEvent -> writes.run(databaseService.updateEventAsync(updatedEvent), saved -> {
+            if (saved) {
                 eventsTable.refresh();
                 showAlert("Success", "Event '" + updatedEvent.getTitle() + "' updated successfully!");
             } else {
                 showAlert("Error", "Failed to update event in database.");
             }
-        });
+        }));
     }
     
     private void deleteSelectedEvent() {
@@ -398,21 +435,41 @@ public class EventManagerController {
         
         confirm.showAndWait().ifPresent(response -> {
             if (response == ButtonType.OK) {
-                if (databaseService.deleteEvent(selected.getId(), SessionManager.getCurrentUser().getId())) {
-                    events.remove(selected);
-                    eventsTable.refresh();
-                    showAlert("Deleted", "Event '" + selected.getTitle() + "' has been deleted.");
-                } else {
-                    showAlert("Error", "Failed to delete event from database.");
-                }
+                writes.run(databaseService.deleteEventAsync(selected.getId(), SessionManager.getCurrentUser().getId()), deleted -> {
+                    if (deleted) {
+                        events.remove(selected);
+                        eventsTable.refresh();
+                        showAlert("Deleted", "Event '" + selected.getTitle() + "' has been deleted.");
+                    } else {
+                        showAlert("Error", "Failed to delete event from database.");
+                    }
+                });
             }
         });
     }
     
     public void refreshTable() {
-        if (events == null) return;
-        events.clear();
-        events.addAll(loadUserEvents());
+        if (events == null || SessionManager.getCurrentUser() == null) return;
+        if (syncWatermark == null) {
+            resetPaging();
+            return;
+        }
+        
+        pageLoads.run(databaseService.getEventsChangedSinceAsync(SessionManager.getCurrentUser().getId(), syncWatermark), changes -> {
+            if (changes == null) {
+                resetPaging(); // too far behind to catch up incrementally
+                return;
+            }
+            String userName = SessionManager.getCurrentUser().getUsername();
+            for (Integer deletedId : changes.getDeletedIds()) {
+                removeById(deletedId);
+            }
+            for (Event changed : changes.getChanged()) {
+                changed.setUserName(userName);
+                placeEvent(changed);
+            }
+            syncWatermark = changes.getWatermark();
+        });
         
         // showAlert("Refreshed", "Event list has been refreshed from database."); // Silent refresh is better for auto-updates
     }
@@ -431,28 +488,34 @@ public class EventManagerController {
         File file = fileChooser.showSaveDialog(eventsTable.getScene().getWindow());
         
         if (file != null) {
-            try (PrintWriter writer = new PrintWriter(file)) {
-                // Header
-                writer.println("Title,Date,Start Time,End Time,Location,Category,Phone");
-                
-                // Data
-                for (Event e : events) {
-                    writer.printf("%s,%s,%s,%s,%s,%s,%s%n",
-                        escapeCSV(e.getTitle()),
-                        e.getEventDate(),
-                        e.getStartTime(),
-                        e.getEndTime(),
-                        escapeCSV(e.getLocation()),
-                        escapeCSV(e.getCategory()),
-                        escapeCSV(e.getContactPhone())
-                    );
-                }
-                
-                showAlert("Success", "Events exported successfully to " + file.getAbsolutePath());
-            } catch (Exception ex) {
-                showAlert("Error", "Failed to export events: " + ex.getMessage());
-                ex.printStackTrace();
+            // The table only holds the pages scrolled so far; the export needs every event
+            writes.run(databaseService.getUserEventsAsync(SessionManager.getCurrentUser().getId()),
+                    allEvents -> writeEventsCsv(file, allEvents));
+        }
+    }
+    
+    private void writeEventsCsv(File file, List<Event> allEvents) {
+        try (PrintWriter writer = new PrintWriter(file)) {
+            // Header
+            writer.println("Title,Date,Start Time,End Time,Location,Category,Phone");
+            
+            // Data
+            for (Event e : allEvents) {
+                writer.printf("%s,%s,%s,%s,%s,%s,%s%n",
+                    escapeCSV(e.getTitle()),
+                    e.getEventDate(),
+                    e.getStartTime(),
+                    e.getEndTime() != null ? e.getEndTime() : "",
+                    escapeCSV(e.getLocation()),
+                    escapeCSV(e.getCategory()),
+                    escapeCSV(e.getContactPhone())
+                );
             }
+            
+            showAlert("Success", "Events exported successfully to " + file.getAbsolutePath());
+        } catch (Exception ex) {
+            showAlert("Error", "Failed to export events: " + ex.getMessage());
+            ex.printStackTrace();
         }
     }
     
@@ -461,80 +524,108 @@ public class EventManagerController {
         return "\"" + text.replace("\"", "\"\"") + "\"";
     }
     
-    private List<Event> loadUserEvents() {
-        List<Event> userEvents = new ArrayList<>();
-        int currentUserId = SessionManager.getCurrentUser() != null ? SessionManager.getCurrentUser().getId() : 0;
-        if (currentUserId == 0) return userEvents;
-
-        // Direct DB call to ensure all fields (phone, email) are loaded correctly.
-        String sql = "SELECT * FROM events WHERE user_id = ? ORDER BY event_date DESC, start_time DESC";
-        try (Connection conn = com.calendar.app.utils.DatabaseConnection.getReusableConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setInt(1, currentUserId);
-            var rs = stmt.executeQuery();
-            while (rs.next()) {
-                Event event = new Event();
-                event.setId(rs.getInt("id"));
-                event.setTitle(rs.getString("title"));
-                event.setDescription("");
-                event.setLocation(rs.getString("location"));
-                event.setEventDate(rs.getDate("event_date").toLocalDate());
-                event.setStartTime(rs.getTime("start_time").toLocalTime());
-                event.setEndTime(rs.getTime("end_time").toLocalTime());
-                event.setCategory(rs.getString("category"));
-                event.setUserId(rs.getInt("user_id"));
-                event.setContactPhone(rs.getString("contact_phone"));
-                // event.setContactEmail(rs.getString("contact_email"));
-                event.setUserName(SessionManager.getCurrentUser().getUsername());
-                userEvents.add(event);
-            }
-        } catch (SQLException ex) {
-            System.err.println("Failed to load events directly: " + ex.getMessage());
-            showAlert("Database Error", "Could not load events. Some data might be missing. Error: " + ex.getMessage());
+    private void resetPaging() {
+        pageLoads.cancelAll();
+        events.clear();
+        lastPageLoaded = false;
+        syncWatermark = null;
+        if (SessionManager.getCurrentUser() == null) return;
+        
+        // Take the watermark before the first page so nothing changed in between is missed
+        loadingPage = true;
+        pageLoads.run(databaseService.getEventsChangedSinceAsync(SessionManager.getCurrentUser().getId(), null), start -> {
+            syncWatermark = start != null ? start.getWatermark() : null;
+            loadingPage = false;
+            loadNextPage();
+        }, ex -> {
+            loadingPage = false;
+            loadNextPage();
+        });
+    }
+    
+    /**
+     * Inserts or moves an event to its sorted position. Rows that sort past the
+     * last loaded page are left for the page load that will reach them.
+     */
+    private void placeEvent(Event event) {
+        removeById(event.getId());
+        if (!DatabaseService.matchesSearch(event, searchTerm)) return;
+        if (!lastPageLoaded && !events.isEmpty() && DatabaseService.PAGE_ORDER.compare(event, events.get(events.size() - 1)) > 0) {
+            return;
+        }
+        int index = 0;
+        while (index < events.size() && DatabaseService.PAGE_ORDER.compare(events.get(index), event) < 0) {
+            index++;
         }
-        return userEvents;
+        events.add(index, event);
     }
-
-    private void filterEvents(String searchText) {
-        if (searchText == null || searchText.isEmpty()) {
-            eventsTable.setItems(events);
-        } else {
-            ObservableList<Event> filtered = FXCollections.observableArrayList();
-            for (Event event : events) {
-                if (event.getTitle().toLowerCase().contains(searchText.toLowerCase()) ||
-                    event.getLocation().toLowerCase().contains(searchText.toLowerCase()) ||
-                    event.getCategory().toLowerCase().contains(searchText.toLowerCase())) {
-                    filtered.add(event);
-                }
+    
+    private void removeById(int eventId) {
+        events.removeIf(e -> e.getId() == eventId);
+    }
+    
+    private void loadNextPage() {
+        if (loadingPage || lastPageLoaded || SessionManager.getCurrentUser() == null) return;
+        int currentUserId = SessionManager.getCurrentUser().getId();
+        String userName = SessionManager.getCurrentUser().getUsername();
+        Event after = events.isEmpty() ? null : events.get(events.size() - 1);
+        
+        loadingPage = true;
+        pageLoads.run(databaseService.getUserEventsPageAsync(currentUserId, after, PAGE_SIZE, searchTerm), page -> {
+            for (Event event : page) {
+                event.setUserName(userName);
             }
-            eventsTable.setItems(filtered);
-        }
+            events.addAll(page);
+            lastPageLoaded = page.size() < PAGE_SIZE;
+            loadingPage = false;
+        }, ex -> {
+            loadingPage = false;
+            System.err.println("Failed to load events: " + ex.getMessage());
+            showAlert("Database Error", "Could not load events. Error: " + ex.getMessage());
+        });
+    }
+    
+    // Starts the list over with only the matching events; the server applies the filter page by page
+    private void filterEvents(String searchText) {
+        String term = searchText == null ? "" : searchText.trim();
+        if (term.equals(searchTerm)) return;
+        searchTerm = term;
+        resetPaging();
     }
     
     private void showEventDetails(Event event) {
-        Alert details = new Alert(Alert.AlertType.INFORMATION);
-        details.setTitle("Event Details");
-        details.setHeaderText(event.getTitle());
-        
-        String content = String.format(
-            "Date: %s\n" +
-            "Time: %s - %s\n" +
-            "Location: %s\n" +
-            "Phone: %s\n" +
-            "Category: %s\n" +
-            "User: %s", // Added User
-            event.getEventDate(),
-            event.getStartTime(),
-            event.getEndTime(),
-            event.getLocation(),
-            event.getContactPhone(),
-            event.getCategory(),
-            event.getUserName() // Assuming Event model has getUserName()
-        );
-        
-        details.setContentText(content);
-        details.setWidth(400);
-        details.showAndWait();
+        // Description and email are left out of the table's projection; fetch them on demand
+        detailLoads.run(databaseService.getEventDetailsAsync(event.getId(), event.getUserId()), details -> {
+            Event shown = details != null ? details : event;
+            
+            Alert detailsAlert = new Alert(Alert.AlertType.INFORMATION);
+            detailsAlert.setTitle("Event Details");
+            detailsAlert.setHeaderText(shown.getTitle());
+            
+            String content = String.format(
+                "Date: %s\n" +
+                "Time: %s - %s\n" +
+                "Location: %s\n" +
+                "Phone: %s\n" +
+                "Email: %s\n" +
+                "Category: %s\n" +
+                "User: %s\n" + // Added User
+                "\n%s",
+                shown.getEventDate(),
+                shown.getStartTime(),
+                shown.getEndTime() != null ? shown.getEndTime() : "",
+                shown.getLocation(),
+                shown.getContactPhone(),
+                shown.getContactEmail(),
+                shown.getCategory(),
+                event.getUserName(), // Only the table row carries the user name
+                shown.getDescription() != null ? shown.getDescription() : ""
+            );
+            
+            detailsAlert.setContentText(content);
+            detailsAlert.setWidth(400);
+            detailsAlert.showAndWait();
+        });
     }
     
     private void showAlert(String title, String message) {
@@ -54,8 +54,23 @@ public class RegistrationController {
                 emailField.setStyle("-fx-border-color: #e74c3c;");
             } else {
                 emailField.setStyle("");
+                if (!newValue.isEmpty()) checkAvailable(emailField, registrationService.isEmailAvailableAsync(newValue));
             }
         });
+        
+        // Taken usernames, mostly answered by the in-memory filter without a query
+        usernameField.textProperty().addListener((observable, oldValue, newValue) -> {
+            usernameField.setStyle("");
+            if (!newValue.isBlank()) checkAvailable(usernameField, registrationService.isUsernameAvailableAsync(newValue));
+        });
+    }
+    
+    // Outlines the field in red if it is taken, unless it was edited since the check started
+    private void checkAvailable(TextField field, java.util.concurrent.CompletableFuture<Boolean> available) {
+        String checked = field.getText();
+        available.thenAccept(free -> javafx.application.Platform.runLater(() -> {
+            if (field.getText().equals(checked)) field.setStyle(free ? "" : "-fx-border-color: #e74c3c;");
+        }));
     }
     
     private void checkPasswordMatch() {
@@ -104,40 +119,45 @@ public class RegistrationController {
         registerButton.setDisable(true);
         registerButton.setText("Registering...");
         
-        // Try to register
-        RegistrationService.RegistrationResult result = registrationService.registerUser(
-            username, password, email, fullName
-        );
-        
-        if (result.isSuccess()) {
-            showSuccess(result.getMessage());
-            
-            // Clear form
-            usernameField.clear();
-            passwordField.clear();
-            confirmPasswordField.clear();
-            emailField.clear();
-            fullNameField.clear();
-            
-            // Enable registration after delay
-            new java.util.Timer().schedule(
-                new java.util.TimerTask() {
-                    @Override
-                    public void run() {
-                        javafx.application.Platform.runLater(() -> {
-                            registerButton.setDisable(false);
-                            registerButton.setText("Register");
-                        });
-                    }
-                },
-                2000
-            );
-            
-        } else {
-            showError(result.getMessage());
-            registerButton.setDisable(false);
-            registerButton.setText("Register");
-        }
+        // Try to register; hashing the password takes a moment, so off the FX thread
+        registrationService.registerUserAsync(username, password, email, fullName)
+            .whenComplete((result, ex) -> javafx.application.Platform.runLater(() -> {
+                if (ex != null) {
+                    showError("Registration failed. Please try again.");
+                    registerButton.setDisable(false);
+                    registerButton.setText("Register");
+                    return;
+                }
+                if (result.isSuccess()) {
+                    showSuccess(result.getMessage());
+                    
+                    // Clear form
+                    usernameField.clear();
+                    passwordField.clear();
+                    confirmPasswordField.clear();
+                    emailField.clear();
+                    fullNameField.clear();
+                    
+                    // Enable registration after delay
+                    new java.util.Timer().schedule(
+                        new java.util.TimerTask() {
+                            @Override
+                            public void run() {
+                                javafx.application.Platform.runLater(() -> {
+                                    registerButton.setDisable(false);
+                                    registerButton.setText("Register");
+                                });
+                            }
+                        },
+                        2000
+                    );
+                    
+                } else {
+                    showError(result.getMessage());
+                    registerButton.setDisable(false);
+                    registerButton.setText("Register");
+                }
+            }));
     }
     
     @FXML
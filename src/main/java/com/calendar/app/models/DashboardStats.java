@@ -0,0 +1,72 @@
+package com.calendar.app.models;
+
+/**
+ * Event counts shown on the dashboard, as kept by DashboardCounters.
+ */
+public class DashboardStats {
+    private final int total;
+    private final int completed;
+    private final int upcoming;
+    private final int meetings;
+    private final int personal;
+    private final int work;
+    private final int social;
+    private final int other;
+
+    public DashboardStats(int total, int completed, int upcoming,
+                          int meetings, int personal, int work, int social, int other) {
+        this.total = total;
+        this.completed = completed;
+        this.upcoming = upcoming;
+        this.meetings = meetings;
+        this.personal = personal;
+        this.work = work;
+        this.social = social;
+        this.other = other;
+    }
+
+    public static DashboardStats empty() {
+        return new DashboardStats(0, 0, 0, 0, 0, 0, 0, 0);
+    }
+
+    public int getTotal() { return total; }
+    public int getCompleted() { return completed; }
+    public int getUpcoming() { return upcoming; }
+    public int getMeetings() { return meetings; }
+    public int getPersonal() { return personal; }
+    public int getWork() { return work; }
+    public int getSocial() { return social; }
+    public int getOther() { return other; }
+
+    /**
+     * Looks a count up by the keys the dashboard cards use:
+     * ALL, COMPLETED, UPCOMING or a category name.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof DashboardStats other)) return false;
+        return total == other.total && completed == other.completed && upcoming == other.upcoming
+                && meetings == other.meetings && personal == other.personal && work == other.work
+                && social == other.social && this.other == other.other;
+    }
+
+    @Override
+    public int hashCode() {
+        return java.util.Objects.hash(total, completed, upcoming, meetings, personal, work, social, other);
+    }
+
+    public int getCount(String type) {
+        switch (type) {
+            case "ALL": return total;
+            case "COMPLETED": return completed;
+            case "UPCOMING": return upcoming;
+            case "Meeting": return meetings;
+            case "Personal": return personal;
+            case "Work": return work;
+            case "Social": return social;
+            case "Other": return other;
+            default: return 0;
+        }
+    }
+}
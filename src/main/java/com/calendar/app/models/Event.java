@@ -1,6 +1,7 @@
 package com.calendar.app.models;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
 
 public class Event {
@@ -15,6 +16,7 @@ public class Event {
     private int userId;
     private String userName = "";
     private String contactPhone = "";
+    private String contactEmail = "";
 
     public Event() {}
 
@@ -30,6 +32,21 @@ public class Event {
         this.userId = userId;
     }
 
+    public Event(Event other) {
+        this.id = other.id;
+        this.title = other.title;
+        this.description = other.description;
+        this.location = other.location;
+        this.eventDate = other.eventDate;
+        this.startTime = other.startTime;
+        this.endTime = other.endTime;
+        this.category = other.category;
+        this.userId = other.userId;
+        this.userName = other.userName;
+        this.contactPhone = other.contactPhone;
+        this.contactEmail = other.contactEmail;
+    }
+
     public int getId() { return id; }
     public void setId(int id) { this.id = id; }
 
@@ -62,4 +79,17 @@ public class Event {
 
     public String getContactPhone() { return contactPhone; }
     public void setContactPhone(String contactPhone) { this.contactPhone = contactPhone; }
+
+    public String getContactEmail() { return contactEmail; }
+    public void setContactEmail(String contactEmail) { this.contactEmail = contactEmail; }
+
+    /**
+     * Completion is derived from the end time rather than stored, so nothing
+     * has to rewrite rows as events end. Events without an end time complete
+     * at their start.
+     */
+    public boolean isCompleted() {
+        LocalTime end = endTime != null ? endTime : startTime;
+        return LocalDateTime.of(eventDate, end).isBefore(LocalDateTime.now());
+    }
 }
\ No newline at end of file
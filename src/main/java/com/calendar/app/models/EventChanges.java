@@ -0,0 +1,24 @@
+package com.calendar.app.models;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * What changed in a user's events since a sync watermark: rows inserted or
+ * updated, ids deleted, and the watermark to pass on the next sync.
+ */
+public class EventChanges {
+    private final List<Event> changed;
+    private final List<Integer> deletedIds;
+    private final Timestamp watermark;
+
+    public EventChanges(List<Event> changed, List<Integer> deletedIds, Timestamp watermark) {
+        this.changed = changed;
+        this.deletedIds = deletedIds;
+        this.watermark = watermark;
+    }
+
+    public List<Event> getChanged() { return changed; }
+    public List<Integer> getDeletedIds() { return deletedIds; }
+    public Timestamp getWatermark() { return watermark; }
+}
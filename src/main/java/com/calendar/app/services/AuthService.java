@@ -1,18 +1,90 @@
 package com.calendar.app.services;
+
 import com.calendar.app.models.User;
+import com.calendar.app.utils.DatabaseConnection;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Login: one lookup of the user row by username (UNIQUE, so an index seek),
+ * with the password checked by PasswordHasher, returning the session's User.
+ * A password stored in plain text or at an old cost is re-hashed in the
+ * background after a successful login.
+ */
 public class AuthService {
+
+    private static final String USER_COLUMNS = "id, username, password, email, full_name, role, created_at, last_login";
+
+    /**
+     * The matching user, or null if the username is unknown, the password is
+     * wrong or the database can't be reached. Blocks on the password hash,
+     * so call it off the FX thread (authenticateAsync).
+     */
     public User authenticate(String username, String password) {
-        System.out.println("AuthService: authenticating " + username);
+        if (username == null || password == null) return null;
+        User user = null;
+        String stored = null;
+        // Primary: an account registered a moment ago may not be on a replica yet
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement("SELECT " + USER_COLUMNS + " FROM users WHERE username = ?")) {
+            stmt.setString(1, username);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    stored = rs.getString("password");
+                    user = mapUser(rs);
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error authenticating " + username + ": " + e.getMessage());
+            return null;
+        }
         
-        // ALWAYS return success for testing
+        // Hashed after the connection is back in the pool, which is smaller than the logins it serves.
+        // An unknown username still pays for a hash (verify of null), so it takes as long as a wrong password.
+        if (!PasswordHasher.verify(password, stored) || user == null) return null;
+        if (PasswordHasher.needsRehash(stored)) {
+            // Don't hold up the login for the second hash
+            int userId = user.getId();
+            String verified = stored;
+            DatabaseService.supplyAsync(() -> upgradeHash(userId, verified, password));
+        }
+        return user;
+    }
+
+    public CompletableFuture<User> authenticateAsync(String username, String password) {
+        return DatabaseService.supplyAsync(() -> authenticate(username, password));
+    }
+
+    // Only replaces the value that was verified, so a password changed meanwhile is kept
+    private static boolean upgradeHash(int userId, String stored, String password) {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement("UPDATE users SET password = ? WHERE id = ? AND password = ?")) {
+            stmt.setString(1, PasswordHasher.hash(password));
+            stmt.setInt(2, userId);
+            stmt.setString(3, stored);
+            return stmt.executeUpdate() > 0;
+        } catch (SQLException | IllegalStateException e) {
+            System.err.println("Error upgrading password hash for user " + userId + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    // The password stays in the database; the session doesn't need it
+    private static User mapUser(ResultSet rs) throws SQLException {
         User user = new User();
-        user.setId(1);
-        user.setUsername(username);
-        user.setFullName("Test User");
-        user.setEmail(username + "@example.com");
-        user.setRole("USER");
-        
-        System.out.println("? Authentication always successful for testing");
+        user.setId(rs.getInt("id"));
+        user.setUsername(rs.getString("username"));
+        user.setEmail(rs.getString("email"));
+        user.setFullName(rs.getString("full_name"));
+        user.setRole(rs.getString("role") != null ? rs.getString("role") : "USER");
+        Timestamp createdAt = rs.getTimestamp("created_at");
+        if (createdAt != null) user.setCreatedAt(createdAt.toLocalDateTime());
+        Timestamp lastLogin = rs.getTimestamp("last_login");
+        if (lastLogin != null) user.setLastLogin(lastLogin.toLocalDateTime());
         return user;
     }
-}
\ No newline at end of file
+}
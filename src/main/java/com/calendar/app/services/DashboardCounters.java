@@ -0,0 +1,224 @@
+package com.calendar.app.services;
+
+import com.calendar.app.models.DashboardStats;
+import com.calendar.app.models.Event;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Dashboard counts per user, kept in memory and adjusted by every write that
+ * goes through DatabaseService, EventService or Main, so opening the dashboard
+ * doesn't aggregate the user's events again. Loaded with one query on first
+ * use, then checked by reconcile() against one aggregate query and reloaded
+ * if anything was written elsewhere.
+ *
+ * Completed and upcoming depend on the clock as well as on the rows, so each
+ * user also keeps the future moments at which an event enters or leaves the
+ * upcoming window or becomes completed. Reading the counts applies the ones
+ * that have passed since the last read.
+ */
+public final class DashboardCounters {
+
+    private static final int MAX_USERS = 64;
+    private static final int UPCOMING_DAYS = 7;
+
+    // What the counts need of each event; kept so updates and deletes can undo it
+    private record Slot(LocalDate date, LocalTime start, LocalTime end, String category) {}
+
+    private static final class Counts {
+        final Map<Integer, Slot> slots = new HashMap<>();
+        final Map<String, Integer> byCategory = new HashMap<>();
+        // Moment -> {change to upcoming, change to completed}
+        final TreeMap<LocalDateTime, int[]> transitions = new TreeMap<>();
+        int upcoming;
+        int completed;
+        // The moment the counts above are correct for
+        LocalDateTime asOf;
+        long version;
+    }
+
+    // Access order, so the least recently used user is dropped first
+    private static final LinkedHashMap<Integer, Counts> counters = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, Counts> eldest) {
+            return size() > MAX_USERS;
+        }
+    };
+    // Bumped by every write, so a load can tell it raced one
+    private static final AtomicLong writes = new AtomicLong();
+
+    private DashboardCounters() {}
+
+    /**
+     * The user's counts, loading them on first use. Empty if the database is unreachable.
+     */
+    public static DashboardStats stats(int userId) {
+        synchronized (DashboardCounters.class) {
+            Counts counts = counters.get(userId);
+            if (counts != null) return toStats(counts, LocalDateTime.now());
+        }
+
+        long writesBefore = writes.get();
+        Counts loaded = load(userId);
+        if (loaded == null) return DashboardStats.empty();
+        synchronized (DashboardCounters.class) {
+            // A write that landed during the load may be missing from it; use it once, don't keep it
+            if (writes.get() == writesBefore) counters.put(userId, loaded);
+            return toStats(loaded, LocalDateTime.now());
+        }
+    }
+
+    /**
+     * Records an inserted or updated event. No-op if the user isn't loaded.
+     */
+    public static synchronized void put(Event event) {
+        writes.incrementAndGet();
+        Counts counts = counters.get(event.getUserId());
+        if (counts == null) return;
+        advance(counts, LocalDateTime.now());
+        Slot previous = counts.slots.remove(event.getId());
+        if (previous != null) apply(counts, previous, -1);
+        Slot slot = new Slot(event.getEventDate(), event.getStartTime(), event.getEndTime(), event.getCategory());
+        counts.slots.put(event.getId(), slot);
+        apply(counts, slot, 1);
+        counts.version++;
+    }
+
+    public static synchronized void remove(int userId, int eventId) {
+        writes.incrementAndGet();
+        Counts counts = counters.get(userId);
+        if (counts == null) return;
+        Slot previous = counts.slots.remove(eventId);
+        if (previous == null) {
+            // Added elsewhere and not seen yet, so we can't tell what to subtract
+            counters.remove(userId);
+            return;
+        }
+        advance(counts, LocalDateTime.now());
+        apply(counts, previous, -1);
+        counts.version++;
+    }
+
+    /**
+     * Drops a user's counts, e.g. at logout or after a write that can't be applied.
+     */
+    public static synchronized void invalidate(int userId) {
+        writes.incrementAndGet();
+        counters.remove(userId);
+    }
+
+    /**
+     * Checks every loaded user's counts against one aggregate query, to pick
+     * up writes made by other instances. Only a user whose counts differ has
+     * their events reloaded, and that is logged.
+     */
+    public static void reconcile() {
+        List<Integer> userIds;
+        synchronized (DashboardCounters.class) {
+            userIds = new ArrayList<>(counters.keySet());
+        }
+        DatabaseService databaseService = new DatabaseService();
+        for (int userId : userIds) {
+            Counts current;
+            long versionBefore;
+            synchronized (DashboardCounters.class) {
+                current = counters.get(userId);
+                if (current == null) continue;
+                versionBefore = current.version;
+            }
+            LocalDateTime now = LocalDateTime.now();
+            DashboardStats actual = databaseService.countDashboardStats(userId, now);
+            if (actual == null) continue;
+            synchronized (DashboardCounters.class) {
+                // Written meanwhile: the check may be missing that write, so try again next time
+                if (counters.get(userId) != current || current.version != versionBefore) continue;
+                if (toStats(current, now).equals(actual)) continue;
+            }
+
+            Counts loaded = load(userId);
+            if (loaded == null) continue;
+            synchronized (DashboardCounters.class) {
+                if (counters.get(userId) != current || current.version != versionBefore) continue;
+                System.out.println("Dashboard counts for user " + userId + " were out of date; reloaded");
+                counters.put(userId, loaded);
+            }
+        }
+    }
+
+    private static Counts load(int userId) {
+        List<Event> rows = new DatabaseService().getCountedEvents(userId);
+        if (rows == null) return null;
+        Counts counts = new Counts();
+        counts.asOf = LocalDateTime.now();
+        for (Event event : rows) {
+            Slot slot = new Slot(event.getEventDate(), event.getStartTime(), event.getEndTime(), event.getCategory());
+            counts.slots.put(event.getId(), slot);
+            apply(counts, slot, 1);
+        }
+        return counts;
+    }
+
+    private static DashboardStats toStats(Counts counts, LocalDateTime now) {
+        advance(counts, now);
+        return new DashboardStats(
+            counts.slots.size(),
+            counts.completed,
+            counts.upcoming,
+            counts.byCategory.getOrDefault("Meeting", 0),
+            counts.byCategory.getOrDefault("Personal", 0),
+            counts.byCategory.getOrDefault("Work", 0),
+            counts.byCategory.getOrDefault("Social", 0),
+            counts.byCategory.getOrDefault("Other", 0));
+    }
+
+    // Applies every transition up to now; each one is applied once
+    private static void advance(Counts counts, LocalDateTime now) {
+        if (!now.isAfter(counts.asOf)) return;
+        while (!counts.transitions.isEmpty() && !counts.transitions.firstKey().isAfter(now)) {
+            int[] change = counts.transitions.pollFirstEntry().getValue();
+            counts.upcoming += change[0];
+            counts.completed += change[1];
+        }
+        counts.asOf = now;
+    }
+
+    /**
+     * Adds (sign 1) or subtracts (sign -1) one event: its category, whether it
+     * is upcoming or completed at asOf, and its transitions after asOf.
+     * Upcoming runs from midnight UPCOMING_DAYS before the event to its start;
+     * completed starts at its end.
+     */
+    private static void apply(Counts counts, Slot slot, int sign) {
+        counts.byCategory.merge(slot.category(), sign, Integer::sum);
+        counts.byCategory.remove(slot.category(), 0);
+
+        LocalDateTime upcomingFrom = slot.date().minusDays(UPCOMING_DAYS).atStartOfDay();
+        LocalDateTime upcomingUntil = slot.date().atTime(slot.start());
+        LocalDateTime completedFrom = slot.date().atTime(slot.end() != null ? slot.end() : slot.start());
+        LocalDateTime asOf = counts.asOf;
+
+        if (!asOf.isBefore(upcomingFrom) && asOf.isBefore(upcomingUntil)) counts.upcoming += sign;
+        if (!asOf.isBefore(completedFrom)) counts.completed += sign;
+
+        if (upcomingFrom.isAfter(asOf)) schedule(counts, upcomingFrom, sign, 0);
+        if (upcomingUntil.isAfter(asOf)) schedule(counts, upcomingUntil, -sign, 0);
+        if (completedFrom.isAfter(asOf)) schedule(counts, completedFrom, 0, sign);
+    }
+
+    private static void schedule(Counts counts, LocalDateTime at, int upcoming, int completed) {
+        counts.transitions.merge(at, new int[] {upcoming, completed}, (a, b) -> {
+            a[0] += b[0];
+            a[1] += b[1];
+            // Changes that cancel out leave nothing to apply
+            return a[0] == 0 && a[1] == 0 ? null : a;
+        });
+    }
+}
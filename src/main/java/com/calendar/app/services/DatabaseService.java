@@ -2,93 +2,460 @@ package com.calendar.app.services;
 
 import java.sql.*;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+import com.calendar.app.models.DashboardStats;
 import com.calendar.app.models.Event;
+import com.calendar.app.models.EventChanges;
 import com.calendar.app.utils.DatabaseConnection;
 
 public class DatabaseService {
     
+    // JDBC blocks, so async calls park a cheap virtual thread instead of the FX thread
+    private static final ExecutorService DB_EXECUTOR =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("db-", 0).factory());
+    
+    // Column projections per view. description (TEXT) and contact_email are
+    // only read by getEventDetails, when a details or edit dialog opens.
+    private static final String LIST_COLUMNS = "id, title, location, event_date, start_time, end_time, category, user_id, contact_phone";
+    private static final String CALENDAR_COLUMNS = "id, title, location, event_date, start_time, end_time, category, user_id";
+    private static final String DETAIL_COLUMNS = LIST_COLUMNS + ", description, contact_email";
+    // EventStore and incremental sync: the list columns plus what reminders need
+    private static final String STORE_COLUMNS = LIST_COLUMNS + ", contact_email";
+    
+    // Hot per-user statements, package-private so QueryPlanTest explains exactly these
+    static final String LIVE_EVENTS_SQL = "SELECT " + STORE_COLUMNS + " FROM events WHERE user_id = ?";
+    static final String COUNTED_EVENTS_SQL =
+            "SELECT id, event_date, start_time, end_time, category FROM events WHERE user_id = ? " +
+            "UNION ALL SELECT id, event_date, start_time, end_time, category FROM events_archive WHERE user_id = ?";
+    static final String DASHBOARD_STATS_SQL = "SELECT COUNT(*) AS total, " +
+            // Completed from its end (its start if it has none); upcoming from midnight 7 days before until its start
+            "SUM(TIMESTAMP(event_date, COALESCE(end_time, start_time)) <= ?) AS completed, " +
+            "SUM(TIMESTAMP(event_date) - INTERVAL 7 DAY <= ? AND TIMESTAMP(event_date, start_time) > ?) AS upcoming, " +
+            "SUM(category = 'Meeting') AS meetings, " +
+            "SUM(category = 'Personal') AS personal, " +
+            "SUM(category = 'Work') AS work, " +
+            "SUM(category = 'Social') AS social, " +
+            "SUM(category = 'Other') AS other " +
+            "FROM (SELECT event_date, start_time, end_time, category FROM events WHERE user_id = ? " +
+            "UNION ALL SELECT event_date, start_time, end_time, category FROM events_archive WHERE user_id = ?) e";
+    // Whole days by the index, then the exact start times in getEventsStartingBetween
+    static final String STARTING_BETWEEN_SQL =
+            "SELECT " + STORE_COLUMNS + " FROM events WHERE user_id = ? AND event_date >= ? AND event_date <= ? " +
+            "ORDER BY event_date, start_time";
+    
+    // Incremental sync: re-read this much before the watermark to cover
+    // transactions that committed late, and give up (full reload) past the
+    // tombstone retention window
+    private static final long SYNC_OVERLAP_MS = 2_000;
+    private static final int TOMBSTONE_RETENTION_DAYS = 7;
+    
+    /** Order of getUserEventsPage: (event_date, start_time, id) descending. */
+    public static final Comparator<Event> PAGE_ORDER = Comparator.comparing(Event::getEventDate)
+            .thenComparing(Event::getStartTime)
+            .thenComparingInt(Event::getId)
+            .reversed();
+    
+    /**
+     * EventArchiver only moves events dated before today minus
+     * dbArchiveAfterDays, so a read whose range starts on or after that date
+     * can skip events_archive. One day of slack covers instances whose clocks
+     * disagree about which day it is.
+     */
+    private static boolean reachesArchive(LocalDate from) {
+        return from.isBefore(LocalDate.now().minusDays(DatabaseConnection.getArchiveAfterDays() - 1));
+    }
+    
     // Check if user exists in database
     public boolean validateUser(String username, String password) {
-        String sql = "SELECT COUNT(*) as count FROM users WHERE username = ? AND password = ?";
-        
-        try (PreparedStatement stmt = DatabaseConnection.getReusableConnection().prepareStatement(sql)) {
-            
-            stmt.setString(1, username);
-            stmt.setString(2, password);
-            ResultSet rs = stmt.executeQuery();
-            
-            if (rs.next()) {
-                return rs.getInt("count") > 0;
-            }
-        } catch (SQLException e) {
-            System.err.println("Database error: " + e.getMessage());
-        }
-        return false;
+        return new AuthService().authenticate(username, password) != null;
     }
     
     // Get all events for a user
     public List<Event> getUserEvents(int userId) {
         List<Event> events = new ArrayList<>();
-        String sql = "SELECT * FROM events WHERE user_id = ? ORDER BY event_date DESC";
+        // The whole history, so archived events are always included
+        String sql = "SELECT " + LIST_COLUMNS + " FROM events WHERE user_id = ? " +
+                     "UNION ALL SELECT " + LIST_COLUMNS + " FROM events_archive WHERE user_id = ? " +
+                     "ORDER BY event_date DESC";
         
-        try {
-            Connection conn = DatabaseConnection.getReusableConnection();
-            if (conn == null) {
-                System.err.println("Database connection is null, returning empty events list");
-                return events;
-            }
-            
+        try (Connection conn = DatabaseConnection.getConnection()) {
             try (PreparedStatement stmt = conn.prepareStatement(sql)) {
                 
                 stmt.setInt(1, userId);
+                stmt.setInt(2, userId);
                 ResultSet rs = stmt.executeQuery();
                 
+                while (rs.next()) {
+                    events.add(mapListRow(rs));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error fetching events: " + e.getMessage());
+        }
+        return events;
+    }
+    
+    /**
+     * One page of a user's events, newest first, ordered by
+     * (event_date, start_time, id) descending. Pass the last event of the
+     * previous page as {@code after}, or null for the first page. Seeking past
+     * the key instead of using OFFSET keeps every page an index range scan,
+     * however deep the user scrolls. Archived events are merged in once a
+     * page reaches back past the archive age. Pages within the live events are
+     * served from EventStore when the user is cached.
+     */
+    public List<Event> getUserEventsPage(int userId, Event after, int limit) {
+        return getUserEventsPage(userId, after, limit, null);
+    }
+    
+    /**
+     * Like getUserEventsPage, but only events whose title, location or
+     * category contains the search text (ignoring case; see matchesSearch).
+     * The filter is part of the keyset query, so later pages keep finding
+     * matches however far back they are. A blank search matches everything.
+     */
+    public List<Event> getUserEventsPage(int userId, Event after, int limit, String search) {
+        String term = search == null ? "" : search.trim();
+        List<Event> page = EventStore.page(userId, after, limit, event -> matchesSearch(event, term));
+        if (page != null && page.size() == limit && !reachesArchive(page.get(limit - 1).getEventDate())) {
+            return page;
+        }
+        
+        // Primary: the list must show the user's own saves straight away, which a lagging replica may not
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            List<Event> events = readPage(conn, "events", userId, after, limit, term);
+            if (events.size() == limit && !reachesArchive(events.get(limit - 1).getEventDate())) {
+                return events;
+            }
+            // Archived rows may sort into this page: take the archive's page from
+            // the same cursor and keep the first limit of both
+            events.addAll(readPage(conn, "events_archive", userId, after, limit, term));
+            events.sort(PAGE_ORDER);
+            return events.size() > limit ? new ArrayList<>(events.subList(0, limit)) : events;
+        } catch (SQLException e) {
+            System.err.println("Error fetching events page: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+    
+    /**
+     * Whether the title, location or category contains the search text,
+     * ignoring case, as the LIKE in readPage does under the default collation.
+     * A blank search matches everything.
+     */
+    public static boolean matchesSearch(Event event, String search) {
+        if (search == null || search.isBlank()) return true;
+        String term = search.trim().toLowerCase();
+        return contains(event.getTitle(), term) || contains(event.getLocation(), term) || contains(event.getCategory(), term);
+    }
+    
+    private static boolean contains(String value, String lowerCaseTerm) {
+        return value != null && value.toLowerCase().contains(lowerCaseTerm);
+    }
+    
+    // One page of a table, optionally filtered by a search term and keyed after a row
+    static String pageSql(String table, boolean search, boolean after) {
+        return "SELECT " + LIST_COLUMNS + " FROM " + table + " WHERE user_id = ? " +
+               (search ? "AND (title LIKE ? OR location LIKE ? OR category LIKE ?) " : "") +
+               (after ? "AND (event_date < ? OR (event_date = ? AND (start_time < ? OR (start_time = ? AND id < ?)))) " : "") +
+               "ORDER BY event_date DESC, start_time DESC, id DESC LIMIT ?";
+    }
+    
+    private static List<Event> readPage(Connection conn, String table, int userId, Event after, int limit, String search) throws SQLException {
+        List<Event> events = new ArrayList<>();
+        // The search still walks the user's (user_id, event_date, start_time) range, just filtering rows on the way
+        try (PreparedStatement stmt = conn.prepareStatement(pageSql(table, !search.isEmpty(), after != null))) {
+            int i = 1;
+            stmt.setInt(i++, userId);
+            if (!search.isEmpty()) {
+                // Backslash is LIKE's default escape character
+                String pattern = "%" + search.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+                stmt.setString(i++, pattern);
+                stmt.setString(i++, pattern);
+                stmt.setString(i++, pattern);
+            }
+            if (after != null) {
+                Date afterDate = Date.valueOf(after.getEventDate());
+                Time afterTime = Time.valueOf(after.getStartTime());
+                stmt.setDate(i++, afterDate);
+                stmt.setDate(i++, afterDate);
+                stmt.setTime(i++, afterTime);
+                stmt.setTime(i++, afterTime);
+                stmt.setInt(i++, after.getId());
+            }
+            stmt.setInt(i, limit);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    events.add(mapListRow(rs));
+                }
+            }
+        }
+        return events;
+    }
+    
+    /**
+     * Events inserted or updated, and ids deleted, since the given watermark.
+     * Pass null to just obtain a starting watermark (take it before the
+     * initial load). Returns null when the caller should reload from scratch:
+     * the watermark is older than the tombstone retention, or the query failed.
+     * Rows near the watermark may be reported twice, so apply them idempotently.
+     */
+    public EventChanges getEventsChangedSince(int userId, Timestamp watermark) {
+        // Primary, so a refresh always sees the user's own latest writes
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            Timestamp now;
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT NOW(3)")) {
+                rs.next();
+                now = rs.getTimestamp(1);
+            }
+            if (watermark == null) {
+                return new EventChanges(new ArrayList<>(), new ArrayList<>(), now);
+            }
+            if (now.getTime() - watermark.getTime() > TOMBSTONE_RETENTION_DAYS * 86_400_000L) {
+                return null;
+            }
+            Timestamp from = new Timestamp(watermark.getTime() - SYNC_OVERLAP_MS);
+            
+            List<Event> changed = new ArrayList<>();
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "SELECT " + STORE_COLUMNS + " FROM events WHERE user_id = ? AND updated_at >= ?")) {
+                stmt.setInt(1, userId);
+                stmt.setTimestamp(2, from);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) changed.add(mapStoreRow(rs));
+                }
+            }
+            
+            List<Integer> deletedIds = new ArrayList<>();
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "SELECT event_id FROM event_tombstones WHERE user_id = ? AND deleted_at >= ?")) {
+                stmt.setInt(1, userId);
+                stmt.setTimestamp(2, from);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) deletedIds.add(rs.getInt(1));
+                }
+            }
+            return new EventChanges(changed, deletedIds, now);
+        } catch (SQLException e) {
+            System.err.println("Error fetching event changes: " + e.getMessage());
+            return null;
+        }
+    }
+    
+    /**
+     * Drops tombstones older than the sync retention window. Run periodically.
+     */
+    public void purgeTombstones() {
+        String sql = "DELETE FROM event_tombstones WHERE deleted_at < NOW(3) - INTERVAL ? DAY";
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, TOMBSTONE_RETENTION_DAYS);
+            stmt.executeUpdate();
+        } catch (SQLException e) {
+            System.err.println("Error purging tombstones: " + e.getMessage());
+        }
+    }
+    
+    // ===== NOTIFICATION HISTORY =====
+    
+    /**
+     * Deletes message history older than dbNotificationRetentionDays. Run
+     * periodically.
+     */
+    public void purgeNotificationLogs() {
+        String sql = "DELETE FROM notification_logs WHERE sent_at < NOW() - INTERVAL ? DAY ORDER BY sent_at LIMIT ?";
+        int deleted = deleteInChunks(sql, DatabaseConnection.getNotificationRetentionDays());
+        if (deleted > 0) {
+            System.out.println("🧹 Purged " + deleted + " notification log entries");
+        }
+    }
+    
+    /**
+     * Deletes all of one user's message history ("Clear History").
+     */
+    public boolean clearNotificationLogs(int userId) {
+        return deleteInChunks("DELETE FROM notification_logs WHERE user_id = ? ORDER BY sent_at LIMIT ?", userId) >= 0;
+    }
+    
+    /**
+     * Runs a DELETE ... LIMIT ? until it removes fewer rows than the chunk
+     * size. Each chunk commits on its own, so locks are held only briefly.
+     * Returns the rows deleted, or -1 if a chunk failed.
+     */
+    private static int deleteInChunks(String sql, int param) {
+        int chunkSize = DatabaseConnection.getBatchChunkSize();
+        int total = 0;
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, param);
+            stmt.setInt(2, chunkSize);
+            int deleted;
+            do {
+                deleted = stmt.executeUpdate();
+                total += deleted;
+            } while (deleted == chunkSize);
+            return total;
+        } catch (SQLException e) {
+            System.err.println("Error deleting notification logs: " + e.getMessage());
+            return -1;
+        }
+    }
+    
+    /**
+     * Every live (not archived) event of a user, for loading EventStore.
+     * Returns null if the query fails.
+     */
+    List<Event> getLiveEvents(int userId) {
+        List<Event> events = new ArrayList<>();
+        // Primary: the store's watermark was just read there
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(LIVE_EVENTS_SQL)) {
+            stmt.setInt(1, userId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) events.add(mapStoreRow(rs));
+            }
+            return events;
+        } catch (SQLException e) {
+            System.err.println("Error loading events: " + e.getMessage());
+            return null;
+        }
+    }
+    
+    /**
+     * Date, times and category of every event of a user, archived ones
+     * included, for loading DashboardCounters. Returns null if the query fails.
+     */
+    List<Event> getCountedEvents(int userId) {
+        List<Event> events = new ArrayList<>();
+        // Primary: a replica behind by a write just made would count it twice or not at all
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(COUNTED_EVENTS_SQL)) {
+            stmt.setInt(1, userId);
+            stmt.setInt(2, userId);
+            try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
                     Event event = new Event();
                     event.setId(rs.getInt("id"));
-                    event.setTitle(rs.getString("title"));
-                    event.setDescription(rs.getString("description"));
-                    event.setLocation(rs.getString("location"));
                     event.setEventDate(rs.getDate("event_date").toLocalDate());
                     event.setStartTime(rs.getTime("start_time").toLocalTime());
-                    event.setEndTime(rs.getTime("end_time").toLocalTime());
+                    event.setEndTime(endTime(rs));
                     event.setCategory(rs.getString("category"));
-                    event.setUserId(rs.getInt("user_id"));
                     events.add(event);
                 }
             }
+            return events;
         } catch (SQLException e) {
-            System.err.println("Error fetching events: " + e.getMessage());
+            System.err.println("Error loading dashboard counts: " + e.getMessage());
+            return null;
+        }
+    }
+    
+    /**
+     * The user's dashboard counts at the given moment, aggregated in one query
+     * over events and events_archive. Counts the way DashboardCounters does,
+     * so reconcile() can compare the two and reload only on a mismatch.
+     * Returns null if the query fails.
+     */
+    DashboardStats countDashboardStats(int userId, LocalDateTime at) {
+        // Primary, like getCountedEvents
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(DASHBOARD_STATS_SQL)) {
+            // The caller's clock, not the server's, so both sides count at the same moment
+            Timestamp moment = Timestamp.valueOf(at);
+            stmt.setTimestamp(1, moment);
+            stmt.setTimestamp(2, moment);
+            stmt.setTimestamp(3, moment);
+            stmt.setInt(4, userId);
+            stmt.setInt(5, userId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next()) return DashboardStats.empty();
+                // SUM() over no rows is NULL, which getInt reads as 0
+                return new DashboardStats(
+                    rs.getInt("total"),
+                    rs.getInt("completed"),
+                    rs.getInt("upcoming"),
+                    rs.getInt("meetings"),
+                    rs.getInt("personal"),
+                    rs.getInt("work"),
+                    rs.getInt("social"),
+                    rs.getInt("other"));
+            }
+        } catch (SQLException e) {
+            System.err.println("Error checking dashboard counts: " + e.getMessage());
+            return null;
         }
-        return events;
+    }
+    
+    // Maps a row selected with STORE_COLUMNS
+    private static Event mapStoreRow(ResultSet rs) throws SQLException {
+        Event event = mapListRow(rs);
+        event.setContactEmail(rs.getString("contact_email"));
+        return event;
+    }
+    
+    // Maps a row selected with LIST_COLUMNS
+    private static Event mapListRow(ResultSet rs) throws SQLException {
+        Event event = new Event();
+        event.setId(rs.getInt("id"));
+        event.setTitle(rs.getString("title"));
+        event.setLocation(rs.getString("location"));
+        event.setEventDate(rs.getDate("event_date").toLocalDate());
+        event.setStartTime(rs.getTime("start_time").toLocalTime());
+        event.setEndTime(endTime(rs));
+        event.setCategory(rs.getString("category"));
+        event.setUserId(rs.getInt("user_id"));
+        event.setContactPhone(rs.getString("contact_phone"));
+        return event;
+    }
+    
+    // end_time is nullable; an event without one is a point at its start (EventIndex.endMinute)
+    private static LocalTime endTime(ResultSet rs) throws SQLException {
+        Time endTime = rs.getTime("end_time");
+        return endTime != null ? endTime.toLocalTime() : null;
+    }
+    
+    // And written back as NULL, so saving such an event keeps it that way
+    private static Time toSqlTime(LocalTime time) {
+        return time != null ? Time.valueOf(time) : null;
     }
     
     // Add new event
     public boolean addEvent(Event event) {
         String sql = "INSERT INTO events (title, description, location, event_date, start_time, end_time, category, user_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
         
-        try {
-            Connection conn = DatabaseConnection.getReusableConnection();
-            if (conn == null) {
-                System.err.println("Database connection is null, cannot add event");
-                return false;
-            }
-            
-            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            try (PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
                 
                 stmt.setString(1, event.getTitle());
                 stmt.setString(2, event.getDescription());
                 stmt.setString(3, event.getLocation());
                 stmt.setDate(4, Date.valueOf(event.getEventDate()));
                 stmt.setTime(5, Time.valueOf(event.getStartTime()));
-                stmt.setTime(6, Time.valueOf(event.getEndTime()));
+                stmt.setTime(6, toSqlTime(event.getEndTime()));
                 stmt.setString(7, event.getCategory());
                 stmt.setInt(8, event.getUserId());
                 
-                return stmt.executeUpdate() > 0;
+                boolean added = stmt.executeUpdate() > 0;
+                if (added) {
+                    try (ResultSet keys = stmt.getGeneratedKeys()) {
+                        if (keys.next()) event.setId(keys.getInt(1));
+                    }
+                    EventStore.put(withoutContacts(event));
+                    DashboardCounters.put(event);
+                }
+                return added;
             }
         } catch (SQLException e) {
             System.err.println("Error adding event: " + e.getMessage());
@@ -100,13 +467,7 @@ public class DatabaseService {
     public boolean updateEvent(Event event) {
         String sql = "UPDATE events SET title=?, description=?, location=?, event_date=?, start_time=?, end_time=?, category=? WHERE id=? AND user_id=?";
         
-        try {
-            Connection conn = DatabaseConnection.getReusableConnection();
-            if (conn == null) {
-                System.err.println("Database connection is null, cannot update event");
-                return false;
-            }
-            
+        try (Connection conn = DatabaseConnection.getConnection()) {
             try (PreparedStatement stmt = conn.prepareStatement(sql)) {
                 
                 stmt.setString(1, event.getTitle());
@@ -114,12 +475,21 @@ public class DatabaseService {
                 stmt.setString(3, event.getLocation());
                 stmt.setDate(4, Date.valueOf(event.getEventDate()));
                 stmt.setTime(5, Time.valueOf(event.getStartTime()));
-                stmt.setTime(6, Time.valueOf(event.getEndTime()));
+                stmt.setTime(6, toSqlTime(event.getEndTime()));
                 stmt.setString(7, event.getCategory());
                 stmt.setInt(8, event.getId());
                 stmt.setInt(9, event.getUserId());
                 
-                return stmt.executeUpdate() > 0;
+                boolean updated = stmt.executeUpdate() > 0;
+                // Not in events: it may have been archived, and goes back to events to be edited
+                if (!updated && EventArchiver.restore(conn, event.getId(), event.getUserId())) {
+                    updated = stmt.executeUpdate() > 0;
+                }
+                if (updated) {
+                    EventStore.merge(event);
+                    DashboardCounters.put(event);
+                }
+                return updated;
             }
         } catch (SQLException e) {
             System.err.println("Error updating event: " + e.getMessage());
@@ -127,23 +497,94 @@ public class DatabaseService {
         }
     }
     
+    /**
+     * Inserts the event with its contact phone and email (the event dialog's
+     * save) and sets its generated id. Unlike addEvent, a failure is thrown so
+     * the dialog can show why.
+     */
+    public Event createEventWithContacts(Event event) throws SQLException {
+        String sql = "INSERT INTO events (title, location, event_date, start_time, end_time, category, user_id, contact_phone, contact_email) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            stmt.setString(1, event.getTitle());
+            stmt.setString(2, event.getLocation());
+            stmt.setDate(3, Date.valueOf(event.getEventDate()));
+            stmt.setTime(4, Time.valueOf(event.getStartTime()));
+            stmt.setTime(5, toSqlTime(event.getEndTime()));
+            stmt.setString(6, event.getCategory());
+            stmt.setInt(7, event.getUserId());
+            stmt.setString(8, event.getContactPhone());
+            stmt.setString(9, event.getContactEmail());
+            
+            stmt.executeUpdate();
+            try (ResultSet keys = stmt.getGeneratedKeys()) {
+                if (keys.next()) event.setId(keys.getInt(1));
+            }
+        }
+        EventStore.put(event);
+        DashboardCounters.put(event);
+        return event;
+    }
+    
+    /**
+     * Updates the event's fields and contact phone and email (the event
+     * dialog's edit), restoring it from the archive first if it was archived.
+     * Leaves description alone. Throws if the user has no such event.
+     */
+    public Event updateEventWithContacts(Event event) throws SQLException {
+        String sql = "UPDATE events SET title=?, location=?, event_date=?, start_time=?, end_time=?, category=?, contact_phone=?, contact_email=? WHERE id=? AND user_id=?";
+        
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, event.getTitle());
+            stmt.setString(2, event.getLocation());
+            stmt.setDate(3, Date.valueOf(event.getEventDate()));
+            stmt.setTime(4, Time.valueOf(event.getStartTime()));
+            stmt.setTime(5, toSqlTime(event.getEndTime()));
+            stmt.setString(6, event.getCategory());
+            stmt.setString(7, event.getContactPhone());
+            stmt.setString(8, event.getContactEmail());
+            stmt.setInt(9, event.getId());
+            stmt.setInt(10, event.getUserId());
+            int updated = stmt.executeUpdate();
+            // Not in events: an archived event, which goes back to events before it's edited
+            if (updated == 0 && EventArchiver.restore(conn, event.getId(), event.getUserId())) {
+                updated = stmt.executeUpdate();
+            }
+            if (updated == 0) {
+                throw new SQLException("The event no longer exists.");
+            }
+        }
+        EventStore.put(event);
+        DashboardCounters.put(event);
+        return event;
+    }
+    
     // Delete event from database
     public boolean deleteEvent(int eventId, int userId) {
         String sql = "DELETE FROM events WHERE id=? AND user_id=?";
         
-        try {
-            Connection conn = DatabaseConnection.getReusableConnection();
-            if (conn == null) {
-                System.err.println("Database connection is null, cannot delete event");
-                return false;
-            }
-            
+        try (Connection conn = DatabaseConnection.getConnection()) {
             try (PreparedStatement stmt = conn.prepareStatement(sql)) {
                 
                 stmt.setInt(1, eventId);
                 stmt.setInt(2, userId);
                 
-                return stmt.executeUpdate() > 0;
+                boolean deleted = stmt.executeUpdate() > 0;
+                if (!deleted) {
+                    // Not in events: it may have been archived
+                    try (PreparedStatement archived = conn.prepareStatement("DELETE FROM events_archive WHERE id=? AND user_id=?")) {
+                        archived.setInt(1, eventId);
+                        archived.setInt(2, userId);
+                        deleted = archived.executeUpdate() > 0;
+                    }
+                }
+                if (deleted) {
+                    EventStore.remove(userId, eventId);
+                    DashboardCounters.remove(userId, eventId);
+                }
+                return deleted;
             }
         } catch (SQLException e) {
             System.err.println("Error deleting event: " + e.getMessage());
@@ -151,51 +592,162 @@ public class DatabaseService {
         }
     }
     
-    // Get event statistics
-    public String getEventStats(int userId) {
-        String sql = "SELECT " +
-                     "COUNT(*) as total, " +
-                     "COUNT(CASE WHEN category = 'Meeting' THEN 1 END) as meetings, " +
-                     "COUNT(CASE WHEN category = 'Personal' THEN 1 END) as personal, " +
-                     "COUNT(CASE WHEN category = 'Work' THEN 1 END) as work " +
-                     "FROM events WHERE user_id = ?";
-        
-        try {
-            Connection conn = DatabaseConnection.getReusableConnection();
-            if (conn == null) {
-                System.err.println("Database connection is null, cannot get stats");
-                return "Total Events: 0 | Meetings: 0 | Personal: 0 | Work: 0";
+    // ===== BATCH WRITES =====
+    // Each chunk of DatabaseConnection.getBatchChunkSize() rows is one JDBC batch
+    // in one transaction. A failing chunk is rolled back and its rows reported as
+    // false; later chunks still run. The returned array lines up with the input.
+    
+    @FunctionalInterface
+    private interface RowBinder<T> {
+        void bind(PreparedStatement stmt, T row) throws SQLException;
+    }
+    
+    /**
+     * Inserts all events. On success each event's id is set from the generated key.
+     */
+    public boolean[] addEvents(List<Event> events) {
+        String sql = "INSERT INTO events (title, description, location, event_date, start_time, end_time, category, user_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+        boolean[] results = executeInChunks(sql, events, Event::setId, (stmt, event) -> {
+            stmt.setString(1, event.getTitle());
+            stmt.setString(2, event.getDescription());
+            stmt.setString(3, event.getLocation());
+            stmt.setDate(4, Date.valueOf(event.getEventDate()));
+            stmt.setTime(5, Time.valueOf(event.getStartTime()));
+            stmt.setTime(6, toSqlTime(event.getEndTime()));
+            stmt.setString(7, event.getCategory());
+            stmt.setInt(8, event.getUserId());
+        });
+        for (int i = 0; i < events.size(); i++) {
+            if (results[i]) {
+                EventStore.put(withoutContacts(events.get(i)));
+                DashboardCounters.put(events.get(i));
             }
-            
-            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                
-                stmt.setInt(1, userId);
-                ResultSet rs = stmt.executeQuery();
-                
-                if (rs.next()) {
-                    return String.format("Total Events: %d | Meetings: %d | Personal: %d | Work: %d",
-                        rs.getInt("total"),
-                        rs.getInt("meetings"),
-                        rs.getInt("personal"),
-                        rs.getInt("work"));
+        }
+        return results;
+    }
+    
+    public boolean[] updateEvents(List<Event> events) {
+        String sql = "UPDATE events SET title=?, description=?, location=?, event_date=?, start_time=?, end_time=?, category=? WHERE id=? AND user_id=?";
+        boolean[] results = executeInChunks(sql, events, null, (stmt, event) -> {
+            stmt.setString(1, event.getTitle());
+            stmt.setString(2, event.getDescription());
+            stmt.setString(3, event.getLocation());
+            stmt.setDate(4, Date.valueOf(event.getEventDate()));
+            stmt.setTime(5, Time.valueOf(event.getStartTime()));
+            stmt.setTime(6, toSqlTime(event.getEndTime()));
+            stmt.setString(7, event.getCategory());
+            stmt.setInt(8, event.getId());
+            stmt.setInt(9, event.getUserId());
+        });
+        for (int i = 0; i < events.size(); i++) {
+            if (results[i]) {
+                EventStore.merge(events.get(i));
+                DashboardCounters.put(events.get(i));
+            } else {
+                // Archived ones are restored one at a time, as updateEvent does
+                results[i] = updateEvent(events.get(i));
+            }
+        }
+        return results;
+    }
+    
+    /**
+     * Deletes the given events of one user. An id that doesn't exist or belongs
+     * to someone else comes back as false.
+     */
+    public boolean[] deleteEvents(int userId, List<Integer> eventIds) {
+        String sql = "DELETE FROM events WHERE id=? AND user_id=?";
+        boolean[] results = executeInChunks(sql, eventIds, null, (stmt, eventId) -> {
+            stmt.setInt(1, eventId);
+            stmt.setInt(2, userId);
+        });
+        // Ids not found in events may have been archived
+        List<Integer> missing = new ArrayList<>();
+        for (int i = 0; i < results.length; i++) {
+            if (!results[i]) missing.add(eventIds.get(i));
+        }
+        boolean[] archived = executeInChunks("DELETE FROM events_archive WHERE id=? AND user_id=?", missing, null, (stmt, eventId) -> {
+            stmt.setInt(1, eventId);
+            stmt.setInt(2, userId);
+        });
+        for (int i = 0, m = 0; i < results.length; i++) {
+            if (!results[i]) results[i] = archived[m++];
+            if (results[i]) {
+                EventStore.remove(userId, eventIds.get(i));
+                DashboardCounters.remove(userId, eventIds.get(i));
+            }
+        }
+        return results;
+    }
+    
+    private <T> boolean[] executeInChunks(String sql, List<T> rows, BiConsumer<T, Integer> onGeneratedKey, RowBinder<T> binder) {
+        boolean[] results = new boolean[rows.size()];
+        if (rows.isEmpty()) return results;
+        int chunkSize = DatabaseConnection.getBatchChunkSize();
+        
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = onGeneratedKey != null
+                    ? conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)
+                    : conn.prepareStatement(sql)) {
+                for (int start = 0; start < rows.size(); start += chunkSize) {
+                    int end = Math.min(start + chunkSize, rows.size());
+                    try {
+                        for (int i = start; i < end; i++) {
+                            binder.bind(stmt, rows.get(i));
+                            stmt.addBatch();
+                        }
+                        int[] counts = stmt.executeBatch();
+                        conn.commit();
+                        for (int i = 0; i < counts.length; i++) {
+                            // Rewritten multi-row statements report SUCCESS_NO_INFO per row
+                            results[start + i] = counts[i] > 0 || counts[i] == Statement.SUCCESS_NO_INFO;
+                        }
+                        if (onGeneratedKey != null) {
+                            try (ResultSet keys = stmt.getGeneratedKeys()) {
+                                for (int i = start; i < end && keys.next(); i++) {
+                                    onGeneratedKey.accept(rows.get(i), keys.getInt(1));
+                                }
+                            }
+                        }
+                    } catch (SQLException e) {
+                        System.err.println("Batch rows " + start + "-" + (end - 1) + " failed, rolled back: " + e.getMessage());
+                        conn.rollback();
+                        stmt.clearBatch();
+                    }
                 }
+            } finally {
+                conn.setAutoCommit(true);
             }
         } catch (SQLException e) {
-            System.err.println("Error getting stats: " + e.getMessage());
+            System.err.println("Batch write error: " + e.getMessage());
         }
-        return "No statistics available";
+        return results;
+    }
+    
+    // The INSERTs here don't write the contact columns, so the stored row has none
+    private static Event withoutContacts(Event event) {
+        Event copy = new Event(event);
+        copy.setContactPhone(null);
+        copy.setContactEmail(null);
+        return copy;
+    }
+    
+    // Get event statistics
+    public String getEventStats(int userId) {
+        DashboardStats stats = DashboardCounters.stats(userId);
+        return String.format("Total Events: %d | Meetings: %d | Personal: %d | Work: %d",
+            stats.getTotal(), stats.getMeetings(), stats.getPersonal(), stats.getWork());
     }
 
     public List<Event> getAllEvents() {
         List<Event> events = new ArrayList<>();
-        String sql = "SELECT e.*, u.username FROM events e JOIN users u ON e.user_id = u.id ORDER BY e.event_date, e.start_time";
+        String sql = "SELECT e.id, e.title, e.location, e.event_date, e.start_time, e.end_time, e.category, e.user_id, u.username " +
+                     "FROM (SELECT " + CALENDAR_COLUMNS + " FROM events UNION ALL SELECT " + CALENDAR_COLUMNS + " FROM events_archive) e " +
+                     "JOIN users u ON e.user_id = u.id ORDER BY e.event_date, e.start_time";
 
-        try {
-            Connection conn = DatabaseConnection.getReusableConnection();
-            if (conn == null) {
-                System.err.println("Database connection is null, cannot get all events");
-                return events;
-            }
+        // Every user's events for the report and export: a replica a few seconds behind is fine
+        try (Connection conn = DatabaseConnection.getReadConnection()) {
             try (PreparedStatement stmt = conn.prepareStatement(sql);
                  ResultSet rs = stmt.executeQuery()) {
 
@@ -203,11 +755,10 @@ public class DatabaseService {
                     Event event = new Event();
                     event.setId(rs.getInt("id"));
                     event.setTitle(rs.getString("title"));
-                    event.setDescription(rs.getString("description"));
                     event.setLocation(rs.getString("location"));
                     event.setEventDate(rs.getDate("event_date").toLocalDate());
                     event.setStartTime(rs.getTime("start_time").toLocalTime());
-                    event.setEndTime(rs.getTime("end_time").toLocalTime());
+                    event.setEndTime(endTime(rs));
                     event.setCategory(rs.getString("category"));
                     event.setUserId(rs.getInt("user_id"));
                     event.setUserName(rs.getString("username")); // Assuming Event model has setUserName
@@ -219,4 +770,302 @@ public class DatabaseService {
         }
         return events;
     }
-}
\ No newline at end of file
+
+    static String rangeSql(boolean withArchive) {
+        String where = " WHERE user_id = ? AND event_date >= ? AND event_date < ?";
+        return "SELECT " + CALENDAR_COLUMNS + " FROM events" + where +
+               (withArchive ? " UNION ALL SELECT " + CALENDAR_COLUMNS + " FROM events_archive" + where : "") +
+               " ORDER BY event_date, start_time";
+    }
+    
+    /**
+     * A user's events with from <= event_date < toExclusive, in date/time order.
+     * The half-open range on the raw column lets MySQL walk
+     * idx_events_user_date_time instead of evaluating a function per row.
+     * events_archive is only read when the range starts past the archive age;
+     * other ranges are served from EventStore when the user is cached.
+     */
+    public List<Event> getEventsInRange(int userId, LocalDate from, LocalDate toExclusive) {
+        if (!reachesArchive(from)) {
+            List<Event> cached = EventStore.between(userId, from, toExclusive);
+            if (cached != null) return cached;
+        }
+        
+        List<Event> events = new ArrayList<>();
+        int tables = reachesArchive(from) ? 2 : 1;
+        String sql = rangeSql(tables == 2);
+        
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (int t = 0, i = 1; t < tables; t++) {
+                stmt.setInt(i++, userId);
+                stmt.setDate(i++, Date.valueOf(from));
+                stmt.setDate(i++, Date.valueOf(toExclusive));
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Event event = new Event();
+                    event.setId(rs.getInt("id"));
+                    event.setTitle(rs.getString("title"));
+                    event.setLocation(rs.getString("location"));
+                    event.setEventDate(rs.getDate("event_date").toLocalDate());
+                    event.setStartTime(rs.getTime("start_time").toLocalTime());
+                    event.setEndTime(endTime(rs));
+                    event.setCategory(rs.getString("category"));
+                    event.setUserId(rs.getInt("user_id"));
+                    events.add(event);
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error fetching events in range: " + e.getMessage());
+        }
+        return events;
+    }
+    
+    /**
+     * Events that would overlap the given one if it were saved: the same
+     * user's (from the EventStore interval index when cached), plus anyone's
+     * booked at the same location. The event itself is left out, so this
+     * works for edits too. Checks live events only; archived ones are long past.
+     */
+    public List<Event> findConflicts(Event event) {
+        long start = EventIndex.startMinute(event);
+        long end = EventIndex.endMinute(event);
+        List<Event> conflicts = EventStore.overlapping(event.getUserId(), event);
+        if (conflicts == null) {
+            conflicts = overlappingRows("user_id = ?", event.getUserId(), event, start, end);
+        }
+        
+        String location = event.getLocation() != null ? event.getLocation().trim() : "";
+        if (!location.isEmpty()) {
+            for (Event other : overlappingRows("location = ?", location, event, start, end)) {
+                if (other.getUserId() != event.getUserId()) conflicts.add(other);
+            }
+        }
+        return conflicts;
+    }
+    
+    static String overlappingSql(String filter) {
+        return "SELECT " + CALENDAR_COLUMNS + " FROM events WHERE " + filter +
+               " AND event_date >= ? AND event_date <= ? AND id <> ? ORDER BY event_date, start_time";
+    }
+    
+    // Rows matching the filter within a day either side (overnight events), narrowed to the overlap here
+    private List<Event> overlappingRows(String filter, Object value, Event event, long start, long end) {
+        List<Event> events = new ArrayList<>();
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(overlappingSql(filter))) {
+            stmt.setObject(1, value);
+            stmt.setDate(2, Date.valueOf(event.getEventDate().minusDays(1)));
+            stmt.setDate(3, Date.valueOf(event.getEventDate().plusDays(1)));
+            stmt.setInt(4, event.getId());
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Event other = new Event();
+                    other.setId(rs.getInt("id"));
+                    other.setTitle(rs.getString("title"));
+                    other.setLocation(rs.getString("location"));
+                    other.setEventDate(rs.getDate("event_date").toLocalDate());
+                    other.setStartTime(rs.getTime("start_time").toLocalTime());
+                    other.setEndTime(endTime(rs));
+                    other.setCategory(rs.getString("category"));
+                    other.setUserId(rs.getInt("user_id"));
+                    if (EventIndex.startMinute(other) < end && EventIndex.endMinute(other) > start) events.add(other);
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error checking for conflicts: " + e.getMessage());
+        }
+        return events;
+    }
+    
+    /**
+     * Events for the reminder scans: those starting at or after from and
+     * before toExclusive (the next few hours, or days), in start order, with
+     * the contact columns the notifications are sent to.
+     */
+    public List<Event> getEventsStartingBetween(int userId, LocalDateTime from, LocalDateTime toExclusive) {
+        List<Event> cached = EventStore.startingBetween(userId, from, toExclusive);
+        if (cached != null) return cached;
+        
+        List<Event> events = new ArrayList<>();
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(STARTING_BETWEEN_SQL)) {
+            stmt.setInt(1, userId);
+            stmt.setDate(2, Date.valueOf(from.toLocalDate()));
+            stmt.setDate(3, Date.valueOf(toExclusive.toLocalDate()));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Event event = mapStoreRow(rs);
+                    LocalDateTime start = event.getEventDate().atTime(event.getStartTime());
+                    if (!start.isBefore(from) && start.isBefore(toExclusive)) events.add(event);
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error fetching reminder events: " + e.getMessage());
+        }
+        return events;
+    }
+    
+    /**
+     * Every column of one event, including the heavy description and contact
+     * fields the list and calendar projections leave out. Reads the primary so
+     * an edit dialog never opens on stale data. Returns null if not found.
+     */
+    public Event getEventDetails(int eventId, int userId) {
+        // Both branches are primary key lookups; at most one of them matches
+        String sql = "SELECT " + DETAIL_COLUMNS + " FROM events WHERE id = ? AND user_id = ? " +
+                     "UNION ALL SELECT " + DETAIL_COLUMNS + " FROM events_archive WHERE id = ? AND user_id = ?";
+        
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, eventId);
+            stmt.setInt(2, userId);
+            stmt.setInt(3, eventId);
+            stmt.setInt(4, userId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    Event event = new Event();
+                    event.setId(rs.getInt("id"));
+                    event.setTitle(rs.getString("title"));
+                    event.setDescription(rs.getString("description"));
+                    event.setLocation(rs.getString("location"));
+                    event.setEventDate(rs.getDate("event_date").toLocalDate());
+                    event.setStartTime(rs.getTime("start_time").toLocalTime());
+                    event.setEndTime(endTime(rs));
+                    event.setCategory(rs.getString("category"));
+                    event.setUserId(rs.getInt("user_id"));
+                    event.setContactPhone(rs.getString("contact_phone"));
+                    event.setContactEmail(rs.getString("contact_email"));
+                    return event;
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error fetching event details: " + e.getMessage());
+        }
+        return null;
+    }
+    
+    /**
+     * All dashboard counts, from the in-memory DashboardCounters.
+     */
+    public DashboardStats getDashboardStats(int userId) {
+        return DashboardCounters.stats(userId);
+    }
+    
+    // ===== ASYNC API =====
+    // Same queries as above, run on DB_EXECUTOR. Pair with FxTaskGroup to get
+    // results back on the FX thread and to cancel them when a view is left.
+    
+    public CompletableFuture<Boolean> validateUserAsync(String username, String password) {
+        return supplyAsync(() -> validateUser(username, password));
+    }
+    
+    public CompletableFuture<List<Event>> getUserEventsAsync(int userId) {
+        return supplyAsync(() -> getUserEvents(userId));
+    }
+    
+    public CompletableFuture<List<Event>> getUserEventsPageAsync(int userId, Event after, int limit) {
+        return supplyAsync(() -> getUserEventsPage(userId, after, limit));
+    }
+    
+    public CompletableFuture<List<Event>> getUserEventsPageAsync(int userId, Event after, int limit, String search) {
+        return supplyAsync(() -> getUserEventsPage(userId, after, limit, search));
+    }
+    
+    public CompletableFuture<EventChanges> getEventsChangedSinceAsync(int userId, Timestamp watermark) {
+        return supplyAsync(() -> getEventsChangedSince(userId, watermark));
+    }
+    
+    public CompletableFuture<List<Event>> getEventsInRangeAsync(int userId, LocalDate from, LocalDate toExclusive) {
+        return supplyAsync(() -> getEventsInRange(userId, from, toExclusive));
+    }
+    
+    public CompletableFuture<List<Event>> findConflictsAsync(Event event) {
+        return supplyAsync(() -> findConflicts(event));
+    }
+    
+    public CompletableFuture<Event> getEventDetailsAsync(int eventId, int userId) {
+        return supplyAsync(() -> getEventDetails(eventId, userId));
+    }
+    
+    public CompletableFuture<List<Event>> getAllEventsAsync() {
+        return supplyAsync(this::getAllEvents);
+    }
+    
+    public CompletableFuture<Boolean> addEventAsync(Event event) {
+        return supplyAsync(() -> addEvent(event));
+    }
+    
+    public CompletableFuture<Boolean> updateEventAsync(Event event) {
+        return supplyAsync(() -> updateEvent(event));
+    }
+    
+    public CompletableFuture<Event> createEventWithContactsAsync(Event event) {
+        return supplyAsync(() -> {
+            try {
+                return createEventWithContacts(event);
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+    
+    public CompletableFuture<Event> updateEventWithContactsAsync(Event event) {
+        return supplyAsync(() -> {
+            try {
+                return updateEventWithContacts(event);
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+    
+    public CompletableFuture<Boolean> deleteEventAsync(int eventId, int userId) {
+        return supplyAsync(() -> deleteEvent(eventId, userId));
+    }
+    
+    public CompletableFuture<Boolean> clearNotificationLogsAsync(int userId) {
+        return supplyAsync(() -> clearNotificationLogs(userId));
+    }
+    
+    public CompletableFuture<boolean[]> addEventsAsync(List<Event> events) {
+        return supplyAsync(() -> addEvents(events));
+    }
+    
+    public CompletableFuture<boolean[]> updateEventsAsync(List<Event> events) {
+        return supplyAsync(() -> updateEvents(events));
+    }
+    
+    public CompletableFuture<boolean[]> deleteEventsAsync(int userId, List<Integer> eventIds) {
+        return supplyAsync(() -> deleteEvents(userId, eventIds));
+    }
+    
+    public CompletableFuture<String> getEventStatsAsync(int userId) {
+        return supplyAsync(() -> getEventStats(userId));
+    }
+    
+    public CompletableFuture<DashboardStats> getDashboardStatsAsync(int userId) {
+        return supplyAsync(() -> getDashboardStats(userId));
+    }
+    
+    /**
+     * Runs a blocking call on a virtual thread. Cancelling the returned future
+     * skips the work if it hasn't started yet and interrupts it if it has.
+     */
+    static <T> CompletableFuture<T> supplyAsync(Supplier<T> work) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        Future<?> task = DB_EXECUTOR.submit(() -> {
+            if (future.isDone()) return; // cancelled before it started
+            try {
+                future.complete(work.get());
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+        });
+        future.whenComplete((result, error) -> {
+            if (future.isCancelled()) task.cancel(true);
+        });
+        return future;
+    }
+}
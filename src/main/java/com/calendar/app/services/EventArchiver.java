@@ -0,0 +1,195 @@
+package com.calendar.app.services;
+
+import com.calendar.app.utils.DatabaseConnection;
+import java.sql.*;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Moves events that ended more than dbArchiveAfterDays ago from events into the
+ * month-partitioned events_archive table, so the per-user scans on events
+ * stay proportional to recent activity. Rows move in chunks of
+ * dbBatchChunkSize, one transaction each, so the hot table is never locked
+ * for long. DatabaseService reads the archive only for date ranges that reach
+ * past the archive age.
+ */
+public class EventArchiver {
+
+    private static final String COLUMNS = "id, title, description, event_date, start_time, end_time, location, " +
+            "contact_phone, contact_email, category, status, user_id, created_at, updated_at";
+    // Completion is derived from the date, not stored in events; archived rows get it written down
+    private static final String SELECT_COLUMNS = "id, title, description, event_date, start_time, end_time, location, " +
+            "contact_phone, contact_email, category, 'COMPLETED', user_id, created_at, updated_at";
+    // And restored ones get the events default back
+    private static final String RESTORE_COLUMNS = "id, title, description, event_date, start_time, end_time, location, " +
+            "contact_phone, contact_email, category, 'SCHEDULED', user_id, created_at, updated_at";
+    // One chunk of due events; SKIP LOCKED leaves rows a user is editing right now for the next run
+    static final String DUE_CHUNK_SQL = "SELECT id, user_id FROM events WHERE event_date < ? " +
+            "ORDER BY event_date LIMIT ? FOR UPDATE SKIP LOCKED";
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'uuuuMM");
+
+    /**
+     * Archives everything that is due and returns the number of events moved.
+     * Returns 0 straight away if another instance is already archiving.
+     */
+    public int archiveCompletedEvents() {
+        LocalDate cutoff = LocalDate.now().minusDays(DatabaseConnection.getArchiveAfterDays());
+        int chunkSize = DatabaseConnection.getBatchChunkSize();
+        int moved = 0;
+
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            if (!tryLock(conn)) return 0;
+            try {
+                ensurePartitions(conn, cutoff);
+                conn.setAutoCommit(false);
+                try {
+                    int chunk;
+                    do {
+                        chunk = moveChunk(conn, cutoff, chunkSize);
+                        moved += chunk;
+                    } while (chunk == chunkSize);
+                } catch (SQLException e) {
+                    conn.rollback();
+                    System.err.println("Archiving stopped after " + moved + " events: " + e.getMessage());
+                } finally {
+                    conn.setAutoCommit(true);
+                }
+            } finally {
+                try (Statement unlock = conn.createStatement()) {
+                    unlock.execute("DO RELEASE_LOCK('event_management.archiver')");
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error archiving events: " + e.getMessage());
+        }
+        if (moved > 0) {
+            System.out.println("🗄️ Archived " + moved + " completed events dated before " + cutoff);
+        }
+        return moved;
+    }
+
+    // Moves up to chunkSize due events in one transaction; returns how many moved
+    private int moveChunk(Connection conn, LocalDate cutoff, int chunkSize) throws SQLException {
+        List<Integer> ids = new ArrayList<>();
+        Set<Integer> userIds = new HashSet<>();
+        try (PreparedStatement stmt = conn.prepareStatement(DUE_CHUNK_SQL)) {
+            stmt.setDate(1, Date.valueOf(cutoff));
+            stmt.setInt(2, chunkSize);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getInt("id"));
+                    userIds.add(rs.getInt("user_id"));
+                }
+            }
+        }
+        if (ids.isEmpty()) {
+            conn.commit();
+            return 0;
+        }
+
+        String in = " IN (" + String.join(", ", Collections.nCopies(ids.size(), "?")) + ")";
+        executeForIds(conn, "INSERT INTO events_archive (" + COLUMNS + ") SELECT " + SELECT_COLUMNS + " FROM events WHERE id" + in, ids);
+        executeForIds(conn, "DELETE FROM events WHERE id" + in, ids);
+        // The delete trigger tombstoned these rows, but they moved rather than went away
+        executeForIds(conn, "DELETE FROM event_tombstones WHERE event_id" + in, ids);
+        conn.commit();
+
+        for (int userId : userIds) {
+            // Moved rows leave no tombstone, so a cached copy would keep them.
+            // DashboardCounters count both tables, so moving changes nothing there.
+            EventStore.invalidate(userId);
+        }
+        return ids.size();
+    }
+
+    /**
+     * Moves one archived event back into events, so it can be edited like a
+     * live one (an edit reschedules it, so it isn't due again). Returns false
+     * if the user has no such archived event.
+     */
+    public static boolean restore(Connection conn, int eventId, int userId) throws SQLException {
+        conn.setAutoCommit(false);
+        try {
+            int restored;
+            try (PreparedStatement stmt = conn.prepareStatement("INSERT INTO events (" + COLUMNS + ") SELECT " +
+                    RESTORE_COLUMNS + " FROM events_archive WHERE id = ? AND user_id = ?")) {
+                stmt.setInt(1, eventId);
+                stmt.setInt(2, userId);
+                restored = stmt.executeUpdate();
+            }
+            if (restored == 0) {
+                conn.rollback();
+                return false;
+            }
+            executeForIds(conn, "DELETE FROM events_archive WHERE id = ?", List.of(eventId));
+            // As in moveChunk: the row moved, it wasn't deleted
+            executeForIds(conn, "DELETE FROM event_tombstones WHERE event_id = ?", List.of(eventId));
+            conn.commit();
+            return true;
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+
+    private static void executeForIds(Connection conn, String sql, List<Integer> ids) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < ids.size(); i++) {
+                stmt.setInt(i + 1, ids.get(i));
+            }
+            stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Splits a month partition off p_future for every month up to the cutoff.
+     * Only due rows are ever archived, so p_future is empty and each split is
+     * a metadata change. Rows older than the first monthly partition share it.
+     */
+    private static void ensurePartitions(Connection conn, LocalDate cutoff) throws SQLException {
+        YearMonth next = null;
+        String latest = "SELECT MAX(PARTITION_NAME) FROM information_schema.PARTITIONS " +
+                        "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'events_archive' AND PARTITION_NAME LIKE 'p2%'";
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(latest)) {
+            if (rs.next() && rs.getString(1) != null) {
+                next = YearMonth.parse(rs.getString(1), PARTITION_NAME).plusMonths(1);
+            }
+        }
+        if (next == null) {
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "SELECT MIN(event_date) FROM events WHERE event_date < ?")) {
+                stmt.setDate(1, Date.valueOf(cutoff));
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (!rs.next() || rs.getDate(1) == null) return;
+                    next = YearMonth.from(rs.getDate(1).toLocalDate());
+                }
+            }
+        }
+
+        YearMonth last = YearMonth.from(cutoff);
+        for (YearMonth month = next; !month.isAfter(last); month = month.plusMonths(1)) {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("ALTER TABLE events_archive REORGANIZE PARTITION p_future INTO (" +
+                        "PARTITION " + month.format(PARTITION_NAME) + " VALUES LESS THAN ('" + month.plusMonths(1).atDay(1) + "'), " +
+                        "PARTITION p_future VALUES LESS THAN (MAXVALUE))");
+            }
+        }
+    }
+
+    // Two instances splitting partitions at once would collide, so one archives at a time
+    private static boolean tryLock(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT GET_LOCK('event_management.archiver', 0)")) {
+            return rs.next() && rs.getInt(1) == 1;
+        }
+    }
+}
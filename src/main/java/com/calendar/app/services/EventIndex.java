@@ -0,0 +1,131 @@
+package com.calendar.app.services;
+
+import com.calendar.app.models.Event;
+import com.calendar.app.utils.IntervalTree;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Predicate;
+
+/**
+ * One user's events by id and by date, so EventStore answers range reads
+ * (a day, a week, a month, the next few hours, a page) with a subMap instead
+ * of scanning every event, and by time span for conflict checks. Not
+ * thread-safe; EventStore guards it.
+ */
+final class EventIndex {
+
+    // Within a day: start time, then id, so PAGE_ORDER is this order reversed
+    private static final Comparator<Event> DAY_ORDER = Comparator.comparing(Event::getStartTime)
+            .thenComparingInt(Event::getId);
+
+    private final Map<Integer, Event> byId = new HashMap<>();
+    private final NavigableMap<LocalDate, NavigableSet<Event>> byDate = new TreeMap<>();
+    // Spans in minutes since the epoch, see startMinute/endMinute
+    private final IntervalTree<Event> bySpan = new IntervalTree<>();
+
+    /**
+     * Adds or replaces the event with this id. Returns the one replaced, or null.
+     * The index keeps the instance, so it must not be changed afterwards.
+     */
+    Event put(Event event) {
+        Event previous = remove(event.getId());
+        byId.put(event.getId(), event);
+        byDate.computeIfAbsent(event.getEventDate(), d -> new TreeSet<>(DAY_ORDER)).add(event);
+        bySpan.add(startMinute(event), endMinute(event), event.getId(), event);
+        return previous;
+    }
+
+    Event remove(int eventId) {
+        Event previous = byId.remove(eventId);
+        if (previous == null) return null;
+        NavigableSet<Event> day = byDate.get(previous.getEventDate());
+        day.remove(previous);
+        if (day.isEmpty()) byDate.remove(previous.getEventDate());
+        bySpan.remove(startMinute(previous), previous.getId());
+        return previous;
+    }
+
+    Event get(int eventId) {
+        return byId.get(eventId);
+    }
+
+    int size() {
+        return byId.size();
+    }
+
+    /**
+     * Events with from <= date < toExclusive, in date and start-time order.
+     */
+    List<Event> between(LocalDate from, LocalDate toExclusive) {
+        List<Event> events = new ArrayList<>();
+        for (NavigableSet<Event> day : byDate.subMap(from, true, toExclusive, false).values()) {
+            events.addAll(day);
+        }
+        return events;
+    }
+
+    /**
+     * Events starting at or after from and before toExclusive, in start order.
+     */
+    List<Event> startingBetween(LocalDateTime from, LocalDateTime toExclusive) {
+        List<Event> events = new ArrayList<>();
+        for (NavigableSet<Event> day : byDate.subMap(from.toLocalDate(), true, toExclusive.toLocalDate(), true).values()) {
+            for (Event event : day) {
+                LocalDateTime start = event.getEventDate().atTime(event.getStartTime());
+                if (!start.isBefore(from) && start.isBefore(toExclusive)) events.add(event);
+            }
+        }
+        return events;
+    }
+
+    /**
+     * Events whose time span overlaps the given event's, other than itself.
+     */
+    List<Event> overlapping(Event event) {
+        List<Event> events = bySpan.overlapping(startMinute(event), endMinute(event));
+        events.removeIf(other -> other.getId() == event.getId());
+        return events;
+    }
+
+    static long startMinute(Event event) {
+        return event.getEventDate().toEpochDay() * 1440 + event.getStartTime().toSecondOfDay() / 60;
+    }
+
+    // An end time before the start means the event runs past midnight
+    static long endMinute(Event event) {
+        if (event.getEndTime() == null) return startMinute(event);
+        long end = event.getEventDate().toEpochDay() * 1440 + event.getEndTime().toSecondOfDay() / 60;
+        return end < startMinute(event) ? end + 1440 : end;
+    }
+
+    /**
+     * Up to limit events accepted by the filter, in DatabaseService.PAGE_ORDER,
+     * that come after the given one (or from the newest, if null).
+     */
+    List<Event> page(Event after, int limit, Predicate<Event> filter) {
+        List<Event> page = new ArrayList<>(limit);
+        NavigableMap<LocalDate, NavigableSet<Event>> days = after == null
+                ? byDate.descendingMap()
+                : byDate.headMap(after.getEventDate(), true).descendingMap();
+        for (Map.Entry<LocalDate, NavigableSet<Event>> day : days.entrySet()) {
+            NavigableSet<Event> events = after != null && day.getKey().equals(after.getEventDate())
+                    ? day.getValue().headSet(after, false)
+                    : day.getValue();
+            for (Event event : events.descendingSet()) {
+                if (!filter.test(event)) continue;
+                page.add(event);
+                if (page.size() == limit) return page;
+            }
+        }
+        return page;
+    }
+}
@@ -5,6 +5,7 @@ import com.calendar.app.utils.DatabaseConnection;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public class EventService {
     
@@ -12,7 +13,8 @@ public class EventService {
         List<Event> events = new ArrayList<>();
         String sql = "SELECT id, title, description, location FROM events WHERE user_id = ?";
         
-        try (PreparedStatement stmt = DatabaseConnection.getReusableConnection().prepareStatement(sql)) {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             
             stmt.setInt(1, userId);
             ResultSet rs = stmt.executeQuery();
@@ -35,7 +37,8 @@ public class EventService {
     public boolean createEvent(Event event) {
         String sql = "INSERT INTO events (title, description, location, user_id) VALUES (?, ?, ?, ?)";
         
-        try (PreparedStatement stmt = DatabaseConnection.getReusableConnection().prepareStatement(sql)) {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             
             stmt.setString(1, event.getTitle());
             stmt.setString(2, event.getDescription());
@@ -43,6 +46,10 @@ public class EventService {
             stmt.setInt(4, event.getUserId());
             
             int rows = stmt.executeUpdate();
+            if (rows > 0) {
+                EventStore.invalidate(event.getUserId());
+                DashboardCounters.invalidate(event.getUserId());
+            }
             return rows > 0;
             
         } catch (SQLException e) {
@@ -54,7 +61,8 @@ public class EventService {
     public boolean updateEvent(Event event) {
         String sql = "UPDATE events SET title=?, description=?, location=? WHERE id=? AND user_id=?";
         
-        try (PreparedStatement stmt = DatabaseConnection.getReusableConnection().prepareStatement(sql)) {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             
             stmt.setString(1, event.getTitle());
             stmt.setString(2, event.getDescription());
@@ -62,7 +70,9 @@ public class EventService {
             stmt.setInt(4, event.getId());
             stmt.setInt(5, event.getUserId());
             
-            return stmt.executeUpdate() > 0;
+            boolean updated = stmt.executeUpdate() > 0;
+            if (updated) EventStore.invalidate(event.getUserId());
+            return updated;
             
         } catch (SQLException e) {
             System.err.println("Error updating event: " + e.getMessage());
@@ -73,16 +83,38 @@ public class EventService {
     public boolean deleteEvent(int eventId, int userId) {
         String sql = "DELETE FROM events WHERE id=? AND user_id=?";
         
-        try (PreparedStatement stmt = DatabaseConnection.getReusableConnection().prepareStatement(sql)) {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             
             stmt.setInt(1, eventId);
             stmt.setInt(2, userId);
             
-            return stmt.executeUpdate() > 0;
+            boolean deleted = stmt.executeUpdate() > 0;
+            if (deleted) {
+                EventStore.remove(userId, eventId);
+                DashboardCounters.remove(userId, eventId);
+            }
+            return deleted;
             
         } catch (SQLException e) {
             System.err.println("Error deleting event: " + e.getMessage());
             return false;
         }
     }
-}
\ No newline at end of file
+    
+    public CompletableFuture<List<Event>> getUserEventsAsync(int userId) {
+        return DatabaseService.supplyAsync(() -> getUserEvents(userId));
+    }
+    
+    public CompletableFuture<Boolean> createEventAsync(Event event) {
+        return DatabaseService.supplyAsync(() -> createEvent(event));
+    }
+    
+    public CompletableFuture<Boolean> updateEventAsync(Event event) {
+        return DatabaseService.supplyAsync(() -> updateEvent(event));
+    }
+    
+    public CompletableFuture<Boolean> deleteEventAsync(int eventId, int userId) {
+        return DatabaseService.supplyAsync(() -> deleteEvent(eventId, userId));
+    }
+}
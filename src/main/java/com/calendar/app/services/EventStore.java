@@ -0,0 +1,303 @@
+package com.calendar.app.services;
+
+import com.calendar.app.models.Event;
+import com.calendar.app.models.EventChanges;
+import com.calendar.app.utils.DatabaseConnection;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * In-memory copy of each active user's live (not archived) events, shared by
+ * the calendar, the event manager and the reminder scanner so they stop
+ * re-reading the same rows. Loaded on first use, then kept current two ways:
+ * writes made through DatabaseService or Main update it directly
+ * (write-through), and anything else (another instance, EventService) is
+ * picked up by an incremental sync at most REFRESH_MS after it happens, or
+ * at once after invalidate(userId). Each user's events sit in an EventIndex,
+ * so reads take just the dates they ask for.
+ *
+ * Holds at most dbEventStoreMaxEvents events in total; the least recently
+ * used users are evicted first. A user with more events than that is never
+ * cached and every read goes to the database.
+ */
+public final class EventStore {
+
+    private static final long REFRESH_MS = 30_000;
+
+    private static final class Snapshot {
+        final EventIndex index = new EventIndex();
+        Timestamp watermark;
+        long syncedAt;
+        boolean refreshing;
+        // Bumped by every write-through, so a refresh can tell it raced one
+        long version;
+    }
+
+    // Access order, so iteration starts at the least recently used user
+    private static final LinkedHashMap<Integer, Snapshot> snapshots = new LinkedHashMap<>(16, 0.75f, true);
+    private static int cachedEvents;
+
+    private static final AtomicLong hits = new AtomicLong();
+    private static final AtomicLong misses = new AtomicLong();
+    private static final AtomicLong refreshes = new AtomicLong();
+    private static final AtomicLong evictions = new AtomicLong();
+    // Bumped on every event write, cached user or not, for views that cache data derived from events
+    private static final AtomicLong changeCount = new AtomicLong();
+
+    private EventStore() {}
+
+    /**
+     * Copies of the user's live events with from <= date < toExclusive, in
+     * date and start-time order, or null if the user can't be cached (too
+     * many events, or the database is unreachable). One call covers a day, a
+     * week or a month.
+     */
+    static List<Event> between(int userId, LocalDate from, LocalDate toExclusive) {
+        Snapshot snapshot = snapshot(userId);
+        if (snapshot == null) return null;
+        synchronized (EventStore.class) {
+            return copies(snapshot.index.between(from, toExclusive));
+        }
+    }
+    
+    /**
+     * Like between(), for events starting at or after from and before toExclusive.
+     */
+    static List<Event> startingBetween(int userId, LocalDateTime from, LocalDateTime toExclusive) {
+        Snapshot snapshot = snapshot(userId);
+        if (snapshot == null) return null;
+        synchronized (EventStore.class) {
+            return copies(snapshot.index.startingBetween(from, toExclusive));
+        }
+    }
+    
+    /**
+     * Up to limit copies of events accepted by the filter, in
+     * DatabaseService.PAGE_ORDER after the given event (from the newest if
+     * null), or null if the user can't be cached.
+     */
+    static List<Event> page(int userId, Event after, int limit, Predicate<Event> filter) {
+        Snapshot snapshot = snapshot(userId);
+        if (snapshot == null) return null;
+        synchronized (EventStore.class) {
+            return copies(snapshot.index.page(after, limit, filter));
+        }
+    }
+    
+    /**
+     * Copies of the user's live events that overlap the given one in time
+     * (itself excluded), or null if the user can't be cached.
+     */
+    static List<Event> overlapping(int userId, Event event) {
+        Snapshot snapshot = snapshot(userId);
+        if (snapshot == null) return null;
+        synchronized (EventStore.class) {
+            return copies(snapshot.index.overlapping(event));
+        }
+    }
+    
+    private static List<Event> copies(List<Event> events) {
+        List<Event> copies = new ArrayList<>(events.size());
+        for (Event event : events) {
+            copies.add(new Event(event));
+        }
+        return copies;
+    }
+    
+    // The user's snapshot, loaded or brought up to date as needed
+    private static Snapshot snapshot(int userId) {
+        Snapshot snapshot;
+        boolean refresh = false;
+        synchronized (EventStore.class) {
+            snapshot = snapshots.get(userId);
+            if (snapshot != null && !snapshot.refreshing
+                    && System.currentTimeMillis() - snapshot.syncedAt >= REFRESH_MS) {
+                snapshot.refreshing = true;
+                refresh = true;
+            }
+        }
+
+        if (snapshot == null) {
+            misses.incrementAndGet();
+            return load(userId);
+        }
+        hits.incrementAndGet();
+        if (refresh) refresh(userId, snapshot);
+        return snapshot;
+    }
+
+    /**
+     * Records an inserted or fully rewritten row. If the user isn't cached
+     * it only moves changeCount().
+     */
+    public static synchronized void put(Event event) {
+        changeCount.incrementAndGet();
+        Snapshot snapshot = snapshots.get(event.getUserId());
+        if (snapshot == null) return;
+        boolean added = snapshot.index.put(new Event(event)) == null;
+        snapshot.version++;
+        if (added) {
+            cachedEvents++;
+            evictOverLimit(event.getUserId());
+        }
+    }
+
+    /**
+     * Records an UPDATE that didn't touch the contact columns; the cached
+     * contact values are kept.
+     */
+    static synchronized void merge(Event event) {
+        changeCount.incrementAndGet();
+        Snapshot snapshot = snapshots.get(event.getUserId());
+        if (snapshot == null) return;
+        Event copy = new Event(event);
+        Event previous = snapshot.index.get(event.getId());
+        if (previous == null) {
+            // Not cached: we can't tell what the contacts are, so re-read soon
+            snapshot.syncedAt = 0;
+            return;
+        }
+        copy.setContactPhone(previous.getContactPhone());
+        copy.setContactEmail(previous.getContactEmail());
+        snapshot.index.put(copy);
+        snapshot.version++;
+    }
+
+    public static synchronized void remove(int userId, int eventId) {
+        changeCount.incrementAndGet();
+        Snapshot snapshot = snapshots.get(userId);
+        if (snapshot == null) return;
+        if (snapshot.index.remove(eventId) != null) cachedEvents--;
+        snapshot.version++;
+    }
+
+    /**
+     * Drops a user's events, e.g. at logout or after writes that bypass the store.
+     */
+    public static synchronized void invalidate(int userId) {
+        Snapshot snapshot = snapshots.remove(userId);
+        if (snapshot != null) cachedEvents -= snapshot.index.size();
+        changeCount.incrementAndGet();
+    }
+
+    public static synchronized void invalidateAll() {
+        snapshots.clear();
+        cachedEvents = 0;
+        changeCount.incrementAndGet();
+    }
+
+    /**
+     * Changes whenever an event is written through the services (whether or
+     * not its user is cached), synced or dropped. Views that keep their own
+     * derived copies compare it to know when to reload.
+     */
+    public static long changeCount() {
+        return changeCount.get();
+    }
+
+    /**
+     * One line of cache counters for the log.
+     */
+    public static String metrics() {
+        long h = hits.get();
+        long m = misses.get();
+        double hitRate = h + m == 0 ? 0 : 100.0 * h / (h + m);
+        synchronized (EventStore.class) {
+            return String.format("EventStore: %d users, %d events, hits %d, misses %d (%.1f%% hit rate), refreshes %d, evictions %d",
+                    snapshots.size(), cachedEvents, h, m, hitRate, refreshes.get(), evictions.get());
+        }
+    }
+
+    private static Snapshot load(int userId) {
+        int max = DatabaseConnection.getEventStoreMaxEvents();
+        if (max == 0) return null;
+        DatabaseService db = new DatabaseService();
+        // Watermark first, so changes made during the load are caught by the next refresh
+        EventChanges start = db.getEventsChangedSince(userId, null);
+        if (start == null) return null;
+        List<Event> rows = db.getLiveEvents(userId);
+        if (rows == null || rows.size() > max) return null;
+
+        Snapshot snapshot = new Snapshot();
+        for (Event event : rows) {
+            snapshot.index.put(event);
+        }
+        snapshot.watermark = start.getWatermark();
+        snapshot.syncedAt = System.currentTimeMillis();
+
+        synchronized (EventStore.class) {
+            Snapshot previous = snapshots.put(userId, snapshot);
+            if (previous != null) cachedEvents -= previous.index.size();
+            cachedEvents += snapshot.index.size();
+            evictOverLimit(userId);
+        }
+        return snapshot;
+    }
+
+    // Drops least recently used users until the store is within
+    // dbEventStoreMaxEvents again, the given user last. Caller holds the lock.
+    private static void evictOverLimit(int userId) {
+        int max = DatabaseConnection.getEventStoreMaxEvents();
+        Iterator<Map.Entry<Integer, Snapshot>> eldest = snapshots.entrySet().iterator();
+        while (cachedEvents > max && eldest.hasNext()) {
+            Map.Entry<Integer, Snapshot> entry = eldest.next();
+            if (entry.getKey() == userId) continue;
+            cachedEvents -= entry.getValue().index.size();
+            eldest.remove();
+            evictions.incrementAndGet();
+        }
+        // Grown past the limit on its own: served from the database, as load() would
+        if (cachedEvents > max) {
+            Snapshot own = snapshots.remove(userId);
+            if (own != null) {
+                cachedEvents -= own.index.size();
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    private static void refresh(int userId, Snapshot snapshot) {
+        long versionBefore;
+        Timestamp watermark;
+        synchronized (EventStore.class) {
+            versionBefore = snapshot.version;
+            watermark = snapshot.watermark;
+        }
+        EventChanges changes = new DatabaseService().getEventsChangedSince(userId, watermark);
+        refreshes.incrementAndGet();
+
+        synchronized (EventStore.class) {
+            snapshot.refreshing = false;
+            if (snapshots.get(userId) != snapshot) return; // invalidated meanwhile
+            if (changes == null) {
+                // Too far behind (or the query failed): load afresh next time
+                invalidate(userId);
+                return;
+            }
+            for (Integer deletedId : changes.getDeletedIds()) {
+                if (snapshot.index.remove(deletedId) != null) cachedEvents--;
+            }
+            int added = 0;
+            for (Event changed : changes.getChanged()) {
+                if (snapshot.index.put(changed) == null) added++;
+            }
+            cachedEvents += added;
+            if (!changes.getChanged().isEmpty() || !changes.getDeletedIds().isEmpty()) {
+                changeCount.incrementAndGet();
+            }
+            snapshot.watermark = changes.getWatermark();
+            // A write-through that landed while the query ran may have been
+            // overwritten by an older row; the next read syncs again
+            snapshot.syncedAt = snapshot.version == versionBefore ? System.currentTimeMillis() : 0;
+            if (added > 0) evictOverLimit(userId);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.calendar.app.services;
+
+import com.calendar.app.utils.DatabaseConnection;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+
+/**
+ * PBKDF2-HMAC-SHA256 password hashes, computed on a small dedicated pool so a
+ * burst of logins can't take every core (or the FX thread). The cost is
+ * passwordHashIterations; hashes made with a different count, and rows still
+ * holding a plain-text password, report needsRehash() and are upgraded by
+ * AuthService at the next successful login.
+ *
+ * Stored format: pbkdf2-sha256$iterations$salt$hash (Base64 salt and hash).
+ */
+public final class PasswordHasher {
+
+    private static final String PREFIX = "pbkdf2-sha256$";
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BITS = 256;
+    // Waiting hashes beyond this are refused rather than queued without bound
+    private static final int MAX_QUEUED = 256;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final ThreadPoolExecutor POOL = newPool(DatabaseConnection.getPasswordHashThreads());
+
+    private PasswordHasher() {}
+
+    // Checked against when there is no real hash, at the configured cost. Made on the
+    // calling thread the first time it's needed: a static initializer must not wait on
+    // POOL, whose threads would in turn wait for this class to finish initializing.
+    private static final class DummyHash {
+        static final String VALUE = newHash("no-such-user", DatabaseConnection.getPasswordHashIterations());
+    }
+
+    private static ThreadPoolExecutor newPool(int threads) {
+        AtomicInteger counter = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(MAX_QUEUED), r -> {
+                    Thread thread = new Thread(r, "password-hash-" + counter.getAndIncrement());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * A new salted hash of the password at the configured cost. Blocks until
+     * a hashing thread has done it, so never call it on the FX thread.
+     */
+    public static String hash(String password) {
+        int iterations = DatabaseConnection.getPasswordHashIterations();
+        return onPool(() -> newHash(password, iterations));
+    }
+
+    private static String newHash(String password, int iterations) {
+        byte[] salt = new byte[SALT_BYTES];
+        RANDOM.nextBytes(salt);
+        byte[] hash = pbkdf2(password, salt, iterations);
+        Base64.Encoder b64 = Base64.getEncoder().withoutPadding();
+        return PREFIX + iterations + "$" + b64.encodeToString(salt) + "$" + b64.encodeToString(hash);
+    }
+
+    /**
+     * Whether the password matches what is stored, which may be a hash, a
+     * legacy plain-text password or null (no such user). Takes about one hash
+     * at the configured cost in every case. Blocks like hash().
+     */
+    public static boolean verify(String password, String stored) {
+        if (stored == null || !stored.startsWith(PREFIX)) {
+            // No such user, or a legacy plain-text row (compared in constant time so timing doesn't
+            // leak a prefix). Either way a hash is still computed, so the time a login takes
+            // doesn't tell which usernames exist or which rows are not yet hashed.
+            boolean matches = stored != null
+                    && MessageDigest.isEqual(password.getBytes(StandardCharsets.UTF_8), stored.getBytes(StandardCharsets.UTF_8));
+            verify(password, DummyHash.VALUE);
+            return matches;
+        }
+        String[] parts = stored.split("\\$");
+        if (parts.length != 4) return false;
+        try {
+            int iterations = Integer.parseInt(parts[1]);
+            byte[] salt = Base64.getDecoder().decode(parts[2]);
+            byte[] expected = Base64.getDecoder().decode(parts[3]);
+            return onPool(() -> MessageDigest.isEqual(expected, pbkdf2(password, salt, iterations)));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Unreadable password hash: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * True for plain-text passwords and for hashes made at a different cost.
+     */
+    public static boolean needsRehash(String stored) {
+        return stored == null || !stored.startsWith(PREFIX + DatabaseConnection.getPasswordHashIterations() + "$");
+    }
+
+    /**
+     * Time one hash takes at the given cost on this machine, in milliseconds
+     * (median of a few runs), for picking passwordHashIterations.
+     */
+    public static double measureMillis(int iterations) {
+        byte[] salt = new byte[SALT_BYTES];
+        RANDOM.nextBytes(salt);
+        pbkdf2("benchmark-password", salt, iterations); // warm up
+        double[] runs = new double[5];
+        for (int i = 0; i < runs.length; i++) {
+            long start = System.nanoTime();
+            pbkdf2("benchmark-password", salt, iterations);
+            runs[i] = (System.nanoTime() - start) / 1e6;
+        }
+        Arrays.sort(runs);
+        return runs[runs.length / 2];
+    }
+
+    /**
+     * The highest iteration count (in steps of 10,000) whose hash takes no
+     * longer than targetMillis here. Never below 10,000.
+     */
+    public static int calibrate(double targetMillis) {
+        // Scale from one measurement, then step down until it fits
+        int probe = 50_000;
+        int iterations = Math.max(10_000, (int) (probe * targetMillis / measureMillis(probe)) / 10_000 * 10_000);
+        while (iterations > 10_000 && measureMillis(iterations) > targetMillis) {
+            iterations -= 10_000;
+        }
+        return iterations;
+    }
+
+    static byte[] pbkdf2(String password, byte[] salt, int iterations) {
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations, HASH_BITS);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " unavailable", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+
+    private static <T> T onPool(Callable<T> work) {
+        try {
+            return POOL.submit(work).get();
+        } catch (RejectedExecutionException e) {
+            throw new IllegalStateException("Too many password checks waiting; try again shortly", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing a password", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+}
@@ -1,18 +1,34 @@
 package com.calendar.app.services;
 
+import com.calendar.app.utils.BloomFilter;
 import com.calendar.app.utils.DatabaseConnection;
 import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.regex.Pattern;
 
 public class RegistrationService {
     
+    // "Duplicate entry '...' for key 'users.email'" (or 'email' before MySQL 8). Only the key name
+    // at the end counts: the duplicated value is quoted too and may contain anything
+    private static final Pattern DUPLICATE_EMAIL = Pattern.compile("for key '(?:users\\.)?email'$");
+    
+    // Every registered username and email, lower-cased since the columns
+    // compare case-insensitively. Lets the form rule a name out as it is
+    // typed without a query; only a possible match is checked in MySQL.
+    // Reloaded after FILTER_TTL_MS to pick up other instances' sign-ups.
+    private static final long FILTER_TTL_MS = 15 * 60_000;
+    private static final double FILTER_FALSE_POSITIVE_RATE = 0.01;
+    private record TakenNames(BloomFilter usernames, BloomFilter emails, long loadedAt) {}
+    private static volatile TakenNames takenNames;
+    
+    /**
+     * Blocks on hashing the password; UI code should use registerUserAsync.
+     */
     public RegistrationResult registerUser(String username, String password, String email, String fullName) {
         System.out.println("Registration attempt for: " + username);
         
-        // Check database connection
-        if (DatabaseConnection.getConnection() == null) {
-            return new RegistrationResult(false, "Database connection failed. Please ensure MySQL is running and database is set up.");
-        }
-        
         // Validate inputs
         if (username == null || username.trim().isEmpty()) {
             return new RegistrationResult(false, "Username is required");
@@ -27,71 +43,127 @@ public class RegistrationService {
             return new RegistrationResult(false, "Full name is required");
         }
         
-        // Check if username already exists
-        if (userExists(username)) {
-            return new RegistrationResult(false, "Username already exists");
-        }
-        
-        // Check if email already exists
-        if (emailExists(email)) {
-            return new RegistrationResult(false, "Email already registered");
-        }
-        
-        // Create user in database
+        // Create user in database; the UNIQUE keys reject duplicates, even
+        // between two registrations racing for the same name
         try {
             if (createUserInDatabase(username, password, email, fullName)) {
+                rememberTaken(username, email);
                 System.out.println("? Registration successful for: " + username);
                 return new RegistrationResult(true, "Registration successful! You can now login.");
             } else {
                 return new RegistrationResult(false, "Registration failed. Please try again.");
             }
+        } catch (SQLIntegrityConstraintViolationException e) {
+            if (e.getMessage() != null && DUPLICATE_EMAIL.matcher(e.getMessage()).find()) {
+                return new RegistrationResult(false, "Email already registered");
+            }
+            return new RegistrationResult(false, "Username already exists");
         } catch (SQLException e) {
             System.err.println("Database error during registration: " + e.getMessage());
             return new RegistrationResult(false, "Database error: " + e.getMessage());
+        } catch (IllegalStateException e) {
+            System.err.println("Password hashing failed during registration: " + e.getMessage());
+            return new RegistrationResult(false, "Registration is busy. Please try again.");
+        }
+    }
+    
+    public CompletableFuture<RegistrationResult> registerUserAsync(String username, String password, String email, String fullName) {
+        return DatabaseService.supplyAsync(() -> registerUser(username, password, email, fullName));
+    }
+    
+    /**
+     * Whether nobody has registered this username yet, for checking it as it
+     * is typed. Completes at once when the in-memory filter rules it out.
+     */
+    public CompletableFuture<Boolean> isUsernameAvailableAsync(String username) {
+        return isAvailableAsync("username", username);
+    }
+    
+    public CompletableFuture<Boolean> isEmailAvailableAsync(String email) {
+        return isAvailableAsync("email", email);
+    }
+    
+    private CompletableFuture<Boolean> isAvailableAsync(String column, String value) {
+        String key = value.trim().toLowerCase();
+        TakenNames names = takenNames;
+        if (names != null && System.currentTimeMillis() - names.loadedAt() < FILTER_TTL_MS
+                && !filterFor(names, column).mightContain(key)) {
+            return CompletableFuture.completedFuture(true);
         }
+        return DatabaseService.supplyAsync(() -> {
+            TakenNames current = loadTakenNames();
+            if (current != null && !filterFor(current, column).mightContain(key)) return true;
+            return !exists(column, value.trim());
+        });
     }
     
-    private boolean userExists(String username) {
-        String sql = "SELECT COUNT(*) as count FROM users WHERE username = ?";
+    private static BloomFilter filterFor(TakenNames names, String column) {
+        return "email".equals(column) ? names.emails() : names.usernames();
+    }
+    
+    // Loads (or reloads, once stale) the filters; null if the database can't be reached
+    private static synchronized TakenNames loadTakenNames() {
+        TakenNames names = takenNames;
+        if (names != null && System.currentTimeMillis() - names.loadedAt() < FILTER_TTL_MS) return names;
         
-        try (PreparedStatement stmt = DatabaseConnection.getReusableConnection().prepareStatement(sql)) {
-            
-            stmt.setString(1, username);
-            ResultSet rs = stmt.executeQuery();
-            
-            if (rs.next()) {
-                return rs.getInt("count") > 0;
+        List<String> usernames = new ArrayList<>();
+        List<String> emails = new ArrayList<>();
+        try (Connection conn = DatabaseConnection.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT username, email FROM users")) {
+            while (rs.next()) {
+                usernames.add(rs.getString("username"));
+                emails.add(rs.getString("email"));
             }
         } catch (SQLException e) {
-            System.err.println("Error checking username: " + e.getMessage());
+            System.err.println("Error loading registered names: " + e.getMessage());
+            return null;
+        }
+        
+        // Room to double before the false-positive rate climbs
+        int expected = Math.max(1024, usernames.size() * 2);
+        BloomFilter usernameFilter = new BloomFilter(expected, FILTER_FALSE_POSITIVE_RATE);
+        BloomFilter emailFilter = new BloomFilter(expected, FILTER_FALSE_POSITIVE_RATE);
+        for (String username : usernames) usernameFilter.add(username.toLowerCase());
+        for (String email : emails) {
+            if (email != null) emailFilter.add(email.toLowerCase());
         }
-        return false;
+        takenNames = new TakenNames(usernameFilter, emailFilter, System.currentTimeMillis());
+        return takenNames;
     }
     
-    private boolean emailExists(String email) {
-        String sql = "SELECT COUNT(*) as count FROM users WHERE email = ?";
-        
-        try (PreparedStatement stmt = DatabaseConnection.getReusableConnection().prepareStatement(sql)) {
-            
-            stmt.setString(1, email);
-            ResultSet rs = stmt.executeQuery();
-            
-            if (rs.next()) {
-                return rs.getInt("count") > 0;
+    private static void rememberTaken(String username, String email) {
+        TakenNames names = takenNames;
+        if (names == null) return;
+        names.usernames().add(username.trim().toLowerCase());
+        names.emails().add(email.trim().toLowerCase());
+    }
+    
+    // column is one of the two constants above, never user input
+    private static boolean exists(String column, String value) {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement("SELECT 1 FROM users WHERE " + column + " = ? LIMIT 1")) {
+            stmt.setString(1, value);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next();
             }
         } catch (SQLException e) {
-            System.err.println("Error checking email: " + e.getMessage());
+            System.err.println("Error checking " + column + ": " + e.getMessage());
+            // Unknown: let the INSERT decide
+            return false;
         }
-        return false;
     }
     
     private boolean createUserInDatabase(String username, String password, String email, String fullName) throws SQLException {
         String sql = "INSERT INTO users (username, password, email, full_name, role) VALUES (?, ?, ?, ?, 'USER')";
+        // Hash before taking a connection, so the pool isn't held while it runs
+        String hash = PasswordHasher.hash(password);
         
-        try (PreparedStatement stmt = DatabaseConnection.getReusableConnection().prepareStatement(sql)) {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             
             stmt.setString(1, username);
-            stmt.setString(2, password);
+            stmt.setString(2, hash);
             stmt.setString(3, email);
             stmt.setString(4, fullName);
             
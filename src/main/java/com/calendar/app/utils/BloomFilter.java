@@ -0,0 +1,62 @@
+package com.calendar.app.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.BitSet;
+
+/**
+ * Fixed-size Bloom filter over strings. mightContain() is always true for a
+ * value that was added, and true for one that wasn't only at about the
+ * false-positive rate the filter was sized for, so a false answer is exact.
+ * Values can't be removed.
+ */
+public class BloomFilter {
+
+    private final BitSet bits;
+    private final int size;
+    private final int hashes;
+
+    public BloomFilter(int expectedValues, double falsePositiveRate) {
+        int n = Math.max(1, expectedValues);
+        double ln2 = Math.log(2);
+        this.size = (int) Math.ceil(-n * Math.log(falsePositiveRate) / (ln2 * ln2));
+        this.hashes = Math.max(1, (int) Math.round((double) size / n * ln2));
+        this.bits = new BitSet(size);
+    }
+
+    public synchronized void add(String value) {
+        long hash = hash64(value);
+        for (int i = 0; i < hashes; i++) {
+            bits.set(index(hash, i));
+        }
+    }
+
+    public synchronized boolean mightContain(String value) {
+        long hash = hash64(value);
+        for (int i = 0; i < hashes; i++) {
+            if (!bits.get(index(hash, i))) return false;
+        }
+        return true;
+    }
+
+    // The i-th position from the two halves of one hash (double hashing)
+    private int index(long hash, int i) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        return Math.floorMod(h1 + i * h2, size);
+    }
+
+    // FNV-1a over the UTF-8 bytes, then a finalizer so both halves are well mixed
+    private static long hash64(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,599 @@
+package com.calendar.app.utils;
+
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+import javax.sql.DataSource;
+
+/**
+ * Bounded JDBC connection pool.
+ * Callers borrow with getConnection() and return by closing the connection
+ * (try-with-resources); the physical connection stays open for the next borrower.
+ *
+ * Connections are only pinged on borrow when they have sat idle longer than
+ * validationIdleMillis, so under steady load the cost of a query is the query
+ * itself. A background keepalive pings long-idle ones so the server doesn't
+ * drop them.
+ *
+ * Each physical connection also keeps an LRU cache of PreparedStatements keyed
+ * by SQL text, so the same query is parsed once per connection rather than once
+ * per call. Closing a cached statement just hands it back to the cache.
+ */
+public class ConnectionPool implements DataSource {
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int minSize;
+    private final int maxSize;
+    private final long acquireTimeoutMillis;
+    private final long idleTimeoutMillis;
+    private final long leakDetectionMillis;
+    private final long validationIdleMillis;
+    private final long keepaliveMillis;
+    private final int statementCacheSize;
+
+    // Idle connections, most recently returned first so cold ones age out at the tail
+    private final LinkedBlockingDeque<PooledEntry> idle = new LinkedBlockingDeque<>();
+    private final Set<PooledEntry> borrowed = ConcurrentHashMap.newKeySet();
+    private final Semaphore permits;
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean shutdown = false;
+    private PrintWriter logWriter;
+    private final AtomicLong validations = new AtomicLong();
+    private final AtomicLong brokenDiscarded = new AtomicLong();
+    private final AtomicLong statementCacheHits = new AtomicLong();
+    private final AtomicLong statementCacheMisses = new AtomicLong();
+
+    /**
+     * Creates a pool and starts its housekeeping. Opens no connections; call
+     * fill() for the minimum.
+     */
+    public static ConnectionPool start(String url, String user, String password, int minSize, int maxSize,
+                                       long acquireTimeoutMillis, long idleTimeoutMillis, long leakDetectionMillis,
+                                       long validationIdleMillis, long keepaliveMillis, int statementCacheSize) {
+        ConnectionPool pool = new ConnectionPool(url, user, password, minSize, maxSize,
+                acquireTimeoutMillis, idleTimeoutMillis, leakDetectionMillis,
+                validationIdleMillis, keepaliveMillis, statementCacheSize);
+        // Scheduled only once the pool is fully constructed, so the housekeeper never sees it half-built
+        pool.housekeeper.scheduleWithFixedDelay(pool::housekeep, 30, 30, TimeUnit.SECONDS);
+        return pool;
+    }
+
+    private ConnectionPool(String url, String user, String password, int minSize, int maxSize,
+                           long acquireTimeoutMillis, long idleTimeoutMillis, long leakDetectionMillis,
+                           long validationIdleMillis, long keepaliveMillis, int statementCacheSize) {
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.maxSize = Math.max(1, maxSize);
+        this.minSize = Math.max(0, Math.min(minSize, this.maxSize));
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.leakDetectionMillis = leakDetectionMillis;
+        this.validationIdleMillis = validationIdleMillis;
+        this.keepaliveMillis = keepaliveMillis;
+        this.statementCacheSize = Math.max(0, statementCacheSize);
+        this.permits = new Semaphore(this.maxSize, true);
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "db-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Opens connections until the pool holds minSize idle ones.
+     * Failures are reported to the caller so startup can show the usual diagnostics.
+     */
+    public void fill() throws SQLException {
+        while (idle.size() + borrowed.size() < minSize) {
+            idle.offerLast(new PooledEntry(DriverManager.getConnection(url, user, password)));
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (shutdown) {
+            throw new SQLException("Connection pool has been shut down");
+        }
+
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new SQLTimeoutException("Timed out after " + acquireTimeoutMillis
+                        + " ms waiting for a database connection (" + borrowed.size() + "/" + maxSize + " in use)");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+
+        try {
+            PooledEntry entry = takeValidIdle();
+            if (entry == null) {
+                entry = new PooledEntry(DriverManager.getConnection(url, user, password));
+            }
+            entry.borrowedAt = System.currentTimeMillis();
+            entry.borrowedBy = leakDetectionMillis > 0 ? new Throwable("Connection borrowed here") : null;
+            entry.leakReported = false;
+            borrowed.add(entry);
+            return entry.newHandle();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    // Pops idle connections until one is usable; dead ones are discarded.
+    // Only connections idle past validationIdleMillis pay for an isValid() round trip.
+    private PooledEntry takeValidIdle() {
+        PooledEntry entry;
+        while ((entry = idle.pollFirst()) != null) {
+            try {
+                if (entry.physical.isClosed()) {
+                    entry.closePhysical();
+                    continue;
+                }
+                if (!entry.needsValidation(System.currentTimeMillis())) {
+                    return entry;
+                }
+                validations.incrementAndGet();
+                if (entry.physical.isValid(2)) {
+                    entry.lastValidated = System.currentTimeMillis();
+                    return entry;
+                }
+                System.out.println("🔄 Pooled connection invalid, discarding...");
+            } catch (SQLException e) {
+                System.err.println("❌ Connection validation failed: " + e.getMessage());
+            }
+            entry.closePhysical();
+        }
+        return null;
+    }
+
+    private void release(PooledEntry entry) {
+        if (!borrowed.remove(entry)) {
+            return;
+        }
+        try {
+            entry.closeTrackedStatements();
+            entry.resetCachedStatements();
+            if (shutdown || entry.broken || entry.physical.isClosed()) {
+                if (entry.broken) {
+                    brokenDiscarded.incrementAndGet();
+                    System.out.println("🔄 Discarding broken connection, a fresh one will be opened on demand");
+                }
+                entry.closePhysical();
+            } else {
+                if (!entry.physical.getAutoCommit()) {
+                    entry.physical.rollback();
+                    entry.physical.setAutoCommit(true);
+                }
+                entry.lastUsed = System.currentTimeMillis();
+                idle.offerFirst(entry);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error returning connection to pool: " + e.getMessage());
+            entry.closePhysical();
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void housekeep() {
+        long now = System.currentTimeMillis();
+
+        // Idle eviction: drop connections unused for idleTimeout, but keep minSize around
+        if (idleTimeoutMillis > 0) {
+            Iterator<PooledEntry> it = idle.descendingIterator();
+            while (it.hasNext() && idle.size() + borrowed.size() > minSize) {
+                PooledEntry entry = it.next();
+                if (now - entry.lastUsed > idleTimeoutMillis && idle.remove(entry)) {
+                    entry.closePhysical();
+                }
+            }
+        }
+
+        // Keepalive: ping connections that have been idle a while so the server
+        // doesn't drop them. It runs every 30 s, so it doesn't spare a borrower the
+        // ping for a connection idle past validationIdleMillis; recent use does that.
+        if (keepaliveMillis > 0) {
+            for (PooledEntry entry : idle.toArray(new PooledEntry[0])) {
+                if (now - Math.max(entry.lastUsed, entry.lastValidated) < keepaliveMillis) {
+                    continue;
+                }
+                // Hold a permit while the entry is out of the deque so the pool never exceeds maxSize
+                if (!permits.tryAcquire()) {
+                    break;
+                }
+                try {
+                    if (!idle.remove(entry)) {
+                        continue;
+                    }
+                    validations.incrementAndGet();
+                    if (entry.physical.isValid(2)) {
+                        entry.lastValidated = System.currentTimeMillis();
+                        idle.offerLast(entry);
+                    } else {
+                        entry.closePhysical();
+                    }
+                } catch (SQLException e) {
+                    entry.closePhysical();
+                } finally {
+                    permits.release();
+                }
+            }
+        }
+
+        // Reconnect: top the pool back up after evictions or dropped connections
+        if (!shutdown) {
+            try {
+                fill();
+            } catch (SQLException e) {
+                System.err.println("Connection pool refill failed: " + e.getMessage());
+            }
+        }
+
+        // Leak detection: warn once per borrow when a connection is held too long
+        if (leakDetectionMillis > 0) {
+            for (PooledEntry entry : borrowed) {
+                if (!entry.leakReported && now - entry.borrowedAt > leakDetectionMillis) {
+                    entry.leakReported = true;
+                    System.err.println("⚠ Possible connection leak: connection held for "
+                            + (now - entry.borrowedAt) + " ms");
+                    if (entry.borrowedBy != null) {
+                        entry.borrowedBy.printStackTrace();
+                    }
+                }
+            }
+        }
+    }
+
+    public void shutdown() {
+        shutdown = true;
+        housekeeper.shutdownNow();
+        PooledEntry entry;
+        while ((entry = idle.pollFirst()) != null) {
+            entry.closePhysical();
+        }
+        // Borrowed connections are closed as they are returned
+    }
+
+    public int getIdleCount() { return idle.size(); }
+    public int getActiveCount() { return borrowed.size(); }
+    public int getMaxSize() { return maxSize; }
+    public long getValidationCount() { return validations.get(); }
+    public long getBrokenDiscardedCount() { return brokenDiscarded.get(); }
+    public long getStatementCacheHits() { return statementCacheHits.get(); }
+    public long getStatementCacheMisses() { return statementCacheMisses.get(); }
+
+    // Communication failures mean the socket is gone; anything else (syntax, constraint) leaves it usable
+    static boolean isConnectionError(SQLException e) {
+        String state = e.getSQLState();
+        return e instanceof SQLNonTransientConnectionException
+                || e instanceof SQLRecoverableException
+                || (state != null && state.startsWith("08"));
+    }
+
+    // --- DataSource plumbing ---
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Pool credentials are fixed at construction");
+    }
+
+    @Override
+    public PrintWriter getLogWriter() { return logWriter; }
+
+    @Override
+    public void setLogWriter(PrintWriter out) { this.logWriter = out; }
+
+    @Override
+    public void setLoginTimeout(int seconds) { DriverManager.setLoginTimeout(seconds); }
+
+    @Override
+    public int getLoginTimeout() { return DriverManager.getLoginTimeout(); }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) return iface.cast(this);
+        throw new SQLException("Not a wrapper for " + iface.getName());
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) { return iface.isInstance(this); }
+
+    // One physical connection plus the bookkeeping the pool needs for it
+    private class PooledEntry {
+        final Connection physical;
+        final List<Statement> openStatements = new ArrayList<>();
+        volatile long lastUsed = System.currentTimeMillis();
+        volatile long lastValidated = lastUsed;
+        volatile boolean broken;
+        volatile long borrowedAt;
+        volatile Throwable borrowedBy;
+        volatile boolean leakReported;
+
+        // Access-ordered so the least recently prepared SQL is evicted first
+        final Map<String, CachedStatement> statementCache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedStatement> eldest) {
+                if (size() <= statementCacheSize) {
+                    return false;
+                }
+                CachedStatement evicted = eldest.getValue();
+                if (evicted.inUse) {
+                    evicted.evicted = true; // closed for real when the caller is done with it
+                } else {
+                    evicted.closeQuietly();
+                }
+                return true;
+            }
+        };
+
+        PooledEntry(Connection physical) {
+            this.physical = physical;
+        }
+
+        synchronized PreparedStatement prepareCached(Connection owner, String sql) throws SQLException {
+            CachedStatement cached = statementCache.get(sql);
+            if (cached != null && !cached.inUse && !cached.statement.isClosed()) {
+                statementCacheHits.incrementAndGet();
+            } else {
+                statementCacheMisses.incrementAndGet();
+                PreparedStatement stmt = physical.prepareStatement(sql);
+                if (cached != null && cached.inUse) {
+                    // Same SQL is already open on this connection (nested use), so this one stays uncached
+                    track(stmt);
+                    return (PreparedStatement) wrapStatement(this, owner, stmt, PreparedStatement.class, null);
+                }
+                cached = new CachedStatement(stmt);
+                statementCache.put(sql, cached);
+            }
+            cached.inUse = true;
+            return (PreparedStatement) wrapStatement(this, owner, cached.statement, PreparedStatement.class, cached);
+        }
+
+        // A borrower that never closed its statement must not keep it checked out
+        synchronized void resetCachedStatements() {
+            for (CachedStatement cached : statementCache.values()) {
+                if (cached.inUse) {
+                    cached.checkIn();
+                }
+            }
+        }
+
+        Connection newHandle() {
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[] { Connection.class },
+                    new Handle(this));
+        }
+
+        boolean needsValidation(long now) {
+            return now - Math.max(lastUsed, lastValidated) > validationIdleMillis;
+        }
+
+        // Statements a caller forgot to close would otherwise pile up on the physical connection
+        synchronized void closeTrackedStatements() {
+            for (Statement stmt : openStatements) {
+                try {
+                    stmt.close();
+                } catch (SQLException ignored) {
+                }
+            }
+            openStatements.clear();
+        }
+
+        synchronized void track(Statement stmt) {
+            openStatements.removeIf(s -> {
+                try {
+                    return s.isClosed();
+                } catch (SQLException e) {
+                    return true;
+                }
+            });
+            openStatements.add(stmt);
+        }
+
+        void closePhysical() {
+            synchronized (this) {
+                statementCache.clear();
+            }
+            try {
+                physical.close();
+            } catch (SQLException e) {
+                System.err.println("Error closing pooled connection: " + e.getMessage());
+            }
+        }
+    }
+
+    // The Connection handed to callers; close() returns the physical connection to the pool
+    private class Handle implements InvocationHandler {
+        private final PooledEntry entry;
+        private boolean closed = false;
+
+        Handle(PooledEntry entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        release(entry);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || entry.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + entry.physical + "]";
+                default:
+                    break;
+            }
+
+            if (closed) {
+                throw new SQLException("Connection has already been returned to the pool");
+            }
+
+            // Only the plain prepareStatement(sql) form is cached; variants with key/cursor options are rare
+            if ("prepareStatement".equals(name) && args.length == 1 && statementCacheSize > 0) {
+                try {
+                    return entry.prepareCached((Connection) proxy, (String) args[0]);
+                } catch (SQLException e) {
+                    throw markIfBroken(entry, e);
+                }
+            }
+
+            try {
+                Object result = method.invoke(entry.physical, args);
+                if (result instanceof Statement) {
+                    entry.track((Statement) result);
+                    return wrapStatement(entry, (Connection) proxy, (Statement) result, method.getReturnType(), null);
+                }
+                return result;
+            } catch (InvocationTargetException e) {
+                throw markIfBroken(entry, e.getCause());
+            }
+        }
+    }
+
+    private Object wrapStatement(PooledEntry entry, Connection owner, Statement stmt, Class<?> type, CachedStatement cached) {
+        return Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[] { type },
+                new StatementHandle(entry, owner, stmt, cached));
+    }
+
+    // A PreparedStatement kept open across borrows of the same physical connection
+    private static class CachedStatement {
+        final PreparedStatement statement;
+        boolean inUse;
+        boolean evicted;
+
+        CachedStatement(PreparedStatement statement) {
+            this.statement = statement;
+        }
+
+        void checkIn() {
+            inUse = false;
+            if (evicted) {
+                closeQuietly();
+                return;
+            }
+            try {
+                statement.clearParameters();
+            } catch (SQLException e) {
+                closeQuietly();
+            }
+        }
+
+        void closeQuietly() {
+            try {
+                statement.close();
+            } catch (SQLException ignored) {
+            }
+        }
+    }
+
+    // Watches statement calls for communication failures so the connection is
+    // dropped on return instead of being handed to the next borrower
+    private class StatementHandle implements InvocationHandler {
+        private final PooledEntry entry;
+        private final Connection owner;
+        private final Statement target;
+        private final CachedStatement cached;
+        private boolean closed = false;
+
+        StatementHandle(PooledEntry entry, Connection owner, Statement target, CachedStatement cached) {
+            this.entry = entry;
+            this.owner = owner;
+            this.target = target;
+            this.cached = cached;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (cached != null) {
+                // Cached statements are closed logically: the real one goes back to the cache
+                switch (method.getName()) {
+                    case "close":
+                        if (!closed) {
+                            closed = true;
+                            synchronized (entry) {
+                                cached.checkIn();
+                            }
+                        }
+                        return null;
+                    case "isClosed":
+                        return closed || target.isClosed();
+                    default:
+                        if (closed && !"equals".equals(method.getName()) && !"hashCode".equals(method.getName())) {
+                            throw new SQLException("Statement is closed");
+                        }
+                        break;
+                }
+            }
+            switch (method.getName()) {
+                case "getConnection":
+                    return owner;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw markIfBroken(entry, e.getCause());
+            }
+        }
+    }
+
+    private static Throwable markIfBroken(PooledEntry entry, Throwable cause) {
+        if (cause instanceof SQLException && isConnectionError((SQLException) cause)) {
+            entry.broken = true;
+        }
+        return cause;
+    }
+}
@@ -3,16 +3,52 @@ package com.calendar.app.utils;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
 import java.io.FileInputStream;
 import java.io.IOException;
+import javax.sql.DataSource;
 
 public class DatabaseConnection {
-    private static Connection connection = null;
-    private static final String URL = "jdbc:mysql://localhost:3306/event_management?useSSL=false&allowPublicKeyRetrieval=true&serverTimezone=UTC";
+    private static ConnectionPool pool = null;
+    private static ReplicaRouter replicaRouter = null;
+    // useServerPrepStmts: the server parses each statement once; ConnectionPool keeps them open per connection
+    // rewriteBatchedStatements: executeBatch() sends multi-row statements instead of one round trip per row
+    private static String URL = "jdbc:mysql://localhost:3306/event_management?useSSL=false&allowPublicKeyRetrieval=true&serverTimezone=UTC&useServerPrepStmts=true&rewriteBatchedStatements=true";
     private static String USER = "root";
     private static String PASSWORD = "";
     
+    // Pool sizing (overridable in ems_settings.properties)
+    private static int POOL_MIN_SIZE = 2;
+    private static int POOL_MAX_SIZE = 10;
+    private static long POOL_ACQUIRE_TIMEOUT_MS = 10_000;
+    private static long POOL_IDLE_TIMEOUT_MS = 600_000;
+    private static long POOL_LEAK_DETECTION_MS = 60_000;
+    // Skip the isValid() ping for connections used more recently than this
+    private static long POOL_VALIDATION_IDLE_MS = 30_000;
+    // Ping idle connections this often so the server (wait_timeout) or a firewall doesn't drop
+    // them. Borrowing one idle past POOL_VALIDATION_IDLE_MS still pings it.
+    private static long POOL_KEEPALIVE_MS = 120_000;
+    private static int STATEMENT_CACHE_SIZE = 25;
+    // Rows per transaction for the DatabaseService batch writes
+    private static int BATCH_CHUNK_SIZE = 500;
+    // Completed events older than this many days move to events_archive
+    private static int ARCHIVE_AFTER_DAYS = 90;
+    // Sent SMS/email history older than this many days is purged
+    private static int NOTIFICATION_RETENTION_DAYS = 90;
+    // Upper bound on events held in memory by EventStore, across all users
+    private static int EVENT_STORE_MAX_EVENTS = 50_000;
+    // PBKDF2 cost for stored passwords (pick with PasswordHashCalibrate) and
+    // the threads that compute them; logins beyond that wait their turn
+    private static int PASSWORD_HASH_ITERATIONS = 210_000;
+    private static int PASSWORD_HASH_THREADS = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    
+    // Read replicas (comma-separated JDBC URLs, same credentials as the primary)
+    private static final List<String> REPLICA_URLS = new ArrayList<>();
+    private static long REPLICA_MAX_LAG_SECONDS = 5;
+    private static long REPLICA_LAG_CHECK_MS = 5_000;
+    
     static {
         // Try to load credentials from ems_settings.properties
         try (FileInputStream fis = new FileInputStream("ems_settings.properties")) {
@@ -20,6 +56,26 @@ public class DatabaseConnection {
             props.load(fis);
             if (props.containsKey("dbUser")) USER = props.getProperty("dbUser");
             if (props.containsKey("dbPassword")) PASSWORD = props.getProperty("dbPassword");
+            if (props.containsKey("dbUrl")) URL = props.getProperty("dbUrl").trim();
+            for (String replicaUrl : props.getProperty("dbReplicaUrls", "").split(",")) {
+                if (!replicaUrl.isBlank()) REPLICA_URLS.add(replicaUrl.trim());
+            }
+            POOL_MIN_SIZE = intSetting(props, "dbPoolMinSize", POOL_MIN_SIZE);
+            POOL_MAX_SIZE = intSetting(props, "dbPoolMaxSize", POOL_MAX_SIZE);
+            POOL_ACQUIRE_TIMEOUT_MS = longSetting(props, "dbPoolAcquireTimeoutMs", POOL_ACQUIRE_TIMEOUT_MS);
+            POOL_IDLE_TIMEOUT_MS = longSetting(props, "dbPoolIdleTimeoutMs", POOL_IDLE_TIMEOUT_MS);
+            POOL_LEAK_DETECTION_MS = longSetting(props, "dbPoolLeakDetectionMs", POOL_LEAK_DETECTION_MS);
+            POOL_VALIDATION_IDLE_MS = longSetting(props, "dbPoolValidationIdleMs", POOL_VALIDATION_IDLE_MS);
+            POOL_KEEPALIVE_MS = longSetting(props, "dbPoolKeepaliveMs", POOL_KEEPALIVE_MS);
+            STATEMENT_CACHE_SIZE = intSetting(props, "dbStatementCacheSize", STATEMENT_CACHE_SIZE);
+            BATCH_CHUNK_SIZE = Math.max(1, intSetting(props, "dbBatchChunkSize", BATCH_CHUNK_SIZE));
+            ARCHIVE_AFTER_DAYS = Math.max(1, intSetting(props, "dbArchiveAfterDays", ARCHIVE_AFTER_DAYS));
+            NOTIFICATION_RETENTION_DAYS = Math.max(1, intSetting(props, "dbNotificationRetentionDays", NOTIFICATION_RETENTION_DAYS));
+            EVENT_STORE_MAX_EVENTS = Math.max(0, intSetting(props, "dbEventStoreMaxEvents", EVENT_STORE_MAX_EVENTS));
+            PASSWORD_HASH_ITERATIONS = Math.max(10_000, intSetting(props, "passwordHashIterations", PASSWORD_HASH_ITERATIONS));
+            PASSWORD_HASH_THREADS = Math.max(1, intSetting(props, "passwordHashThreads", PASSWORD_HASH_THREADS));
+            REPLICA_MAX_LAG_SECONDS = longSetting(props, "dbReplicaMaxLagSeconds", REPLICA_MAX_LAG_SECONDS);
+            REPLICA_LAG_CHECK_MS = longSetting(props, "dbReplicaLagCheckMs", REPLICA_LAG_CHECK_MS);
         } catch (IOException e) {
             // Fallback to Environment Variables if file not found
             String envUser = System.getenv("DB_USER");
@@ -29,8 +85,44 @@ public class DatabaseConnection {
         }
     }
 
-    public static Connection getConnection() {
-        if (connection == null) {
+    // A bad value falls back to the default for that key alone, so the settings after it still load
+    private static int intSetting(Properties props, String key, int fallback) {
+        long value = longSetting(props, key, fallback);
+        if (value == (int) value) return (int) value;
+        System.err.println("Invalid value for " + key + " ('" + value + "'), using " + fallback);
+        return fallback;
+    }
+
+    private static long longSetting(Properties props, String key, long fallback) {
+        String value = props.getProperty(key);
+        if (value == null) return fallback;
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid value for " + key + " ('" + value + "'), using " + fallback);
+            return fallback;
+        }
+    }
+
+    /**
+     * A separate pool on the primary with the configured sizes but the given
+     * validation threshold and keepalive, for PoolValidationTest. The
+     * caller shuts it down.
+     */
+    static ConnectionPool newPool(long validationIdleMs, long keepaliveMs) throws SQLException {
+        ConnectionPool newPool = ConnectionPool.start(URL, USER, PASSWORD,
+                POOL_MIN_SIZE, POOL_MAX_SIZE,
+                POOL_ACQUIRE_TIMEOUT_MS, POOL_IDLE_TIMEOUT_MS, POOL_LEAK_DETECTION_MS,
+                validationIdleMs, keepaliveMs, STATEMENT_CACHE_SIZE);
+        newPool.fill();
+        return newPool;
+    }
+    
+    /**
+     * Returns the shared pooled DataSource, creating it on first use.
+     */
+    public static synchronized DataSource getDataSource() throws SQLException {
+        if (pool == null) {
             try {
                 System.out.println("🔌 Attempting database connection...");
                 System.out.println("URL: " + URL);
@@ -40,17 +132,32 @@ public class DatabaseConnection {
                 Class.forName("com.mysql.cj.jdbc.Driver");
                 System.out.println("✅ MySQL Driver loaded");
                 
-                // Create connection with timeout
+                // Create pool with timeout
                 DriverManager.setLoginTimeout(10); // 10 seconds timeout
-                connection = DriverManager.getConnection(URL, USER, PASSWORD);
-                System.out.println("🎉 Database connected successfully!");
-                System.out.println("Connection valid: " + connection.isValid(2));
+                ConnectionPool newPool = ConnectionPool.start(URL, USER, PASSWORD,
+                        POOL_MIN_SIZE, POOL_MAX_SIZE,
+                        POOL_ACQUIRE_TIMEOUT_MS, POOL_IDLE_TIMEOUT_MS, POOL_LEAK_DETECTION_MS,
+                        POOL_VALIDATION_IDLE_MS, POOL_KEEPALIVE_MS, STATEMENT_CACHE_SIZE);
+                try {
+                    newPool.fill();
+                } catch (SQLException e) {
+                    newPool.shutdown();
+                    throw e;
+                }
+                pool = newPool;
+                System.out.println("🎉 Database connected successfully! (pool " + POOL_MIN_SIZE + "-" + POOL_MAX_SIZE + ")");
+                
+                // Schema changes happen here, once, instead of on failed writes
+                try (Connection conn = pool.getConnection()) {
+                    SchemaMigrator.migrate(conn);
+                } catch (SQLException e) {
+                    System.err.println("❌ Schema migration failed: " + e.getMessage());
+                }
                 
             } catch (ClassNotFoundException e) {
                 System.err.println("❌ MySQL Driver not found: " + e.getMessage());
                 System.err.println("Make sure MySQL Connector/J is in classpath");
-                e.printStackTrace();
-                return null;
+                throw new SQLException("MySQL Driver not found", e);
             } catch (SQLException e) {
                 System.err.println("❌ Database connection failed:");
                 System.err.println("  Error: " + e.getMessage());
@@ -65,67 +172,112 @@ public class DatabaseConnection {
                 } else if (e.getErrorCode() == 2003) {
                     System.err.println("  → Cannot connect to MySQL server. Is MySQL running?");
                 }
-                
-                e.printStackTrace();
-                return null;
-            } catch (Exception e) {
-                System.err.println("❌ Unexpected error: " + e.getMessage());
-                e.printStackTrace();
-                return null;
+                throw e;
             }
         }
-        return connection;
+        return pool;
+    }
+
+    /**
+     * Borrows a connection from the pool. The caller MUST close it
+     * (try-with-resources) to hand it back; closing does not drop the socket.
+     * Always the primary: use this for writes and for reads that must see them.
+     */
+    public static Connection getConnection() throws SQLException {
+        return getDataSource().getConnection();
     }
     
     /**
-     * Returns a connection that should NOT be closed by the caller.
-     * This method ensures the static connection stays open for reuse.
+     * Borrows a connection for a read-only query. Goes to a replica when one
+     * is configured and within the lag limit, otherwise to the primary.
+     * Only for reports and history that may trail the user's own writes by
+     * up to dbReplicaMaxLagSeconds; lists, calendars and reminders use
+     * getConnection().
      */
-    public static Connection getReusableConnection() {
-        Connection conn = getConnection();
-        if (conn != null) {
-            try {
-                // Ensure connection is still valid
-                if (conn.isClosed() || !conn.isValid(2)) {
-                    System.out.println("🔄 Connection invalid, reconnecting...");
-                    connection = null; // Force reconnection
-                    conn = getConnection();
+    public static Connection getReadConnection() throws SQLException {
+        ReplicaRouter router = getReplicaRouter();
+        if (router != null) {
+            Connection conn = router.getConnection();
+            if (conn != null) return conn;
+        }
+        return getConnection();
+    }
+    
+    private static synchronized ReplicaRouter getReplicaRouter() {
+        if (replicaRouter == null && !REPLICA_URLS.isEmpty()) {
+            List<ConnectionPool> replicaPools = new ArrayList<>();
+            for (String replicaUrl : REPLICA_URLS) {
+                ConnectionPool replicaPool = ConnectionPool.start(replicaUrl, USER, PASSWORD,
+                        POOL_MIN_SIZE, POOL_MAX_SIZE,
+                        POOL_ACQUIRE_TIMEOUT_MS, POOL_IDLE_TIMEOUT_MS, POOL_LEAK_DETECTION_MS,
+                        POOL_VALIDATION_IDLE_MS, POOL_KEEPALIVE_MS, STATEMENT_CACHE_SIZE);
+                try {
+                    replicaPool.fill();
+                } catch (SQLException e) {
+                    // Keep it; the housekeeper refills once the replica is reachable
+                    System.err.println("⚠️ Replica " + replicaUrl + " not reachable yet: " + e.getMessage());
                 }
-            } catch (SQLException e) {
-                System.err.println("❌ Connection validation failed: " + e.getMessage());
-                connection = null; // Force reconnection on next call
-                return null;
+                replicaPools.add(replicaPool);
             }
+            replicaRouter = new ReplicaRouter(replicaPools, REPLICA_MAX_LAG_SECONDS, REPLICA_LAG_CHECK_MS);
+            System.out.println("🔀 Routing reads to " + replicaPools.size() + " replica(s)");
         }
-        return conn;
+        return replicaRouter;
+    }
+    
+    public static long getPoolValidationIdleMs() {
+        return POOL_VALIDATION_IDLE_MS;
+    }
+    
+    public static int getBatchChunkSize() {
+        return BATCH_CHUNK_SIZE;
+    }
+    
+    public static int getArchiveAfterDays() {
+        return ARCHIVE_AFTER_DAYS;
+    }
+    
+    public static int getNotificationRetentionDays() {
+        return NOTIFICATION_RETENTION_DAYS;
+    }
+    
+    public static int getEventStoreMaxEvents() {
+        return EVENT_STORE_MAX_EVENTS;
+    }
+    
+    public static int getPasswordHashIterations() {
+        return PASSWORD_HASH_ITERATIONS;
+    }
+    
+    public static int getPasswordHashThreads() {
+        return PASSWORD_HASH_THREADS;
     }
     
     public static void initialize() {
         System.out.println("Initializing database connection...");
-        Connection conn = getConnection();
-        if (conn != null) {
+        try {
+            getDataSource();
             System.out.println("✅ Database initialization complete");
-        } else {
+        } catch (SQLException e) {
             System.out.println("❌ Database initialization failed");
         }
     }
     
-    public static void closeConnection() {
-        if (connection != null) {
-            try {
-                connection.close();
-                System.out.println("Database connection closed.");
-                connection = null;
-            } catch (SQLException e) {
-                System.err.println("Error closing connection: " + e.getMessage());
-            }
+    public static synchronized void closeConnection() {
+        if (replicaRouter != null) {
+            replicaRouter.shutdown();
+            replicaRouter = null;
+        }
+        if (pool != null) {
+            pool.shutdown();
+            System.out.println("Database connection pool closed.");
+            pool = null;
         }
     }
     
     public static boolean testConnection() {
-        try {
-            Connection conn = getConnection();
-            if (conn != null && !conn.isClosed()) {
+        try (Connection conn = getConnection()) {
+            if (!conn.isClosed()) {
                 System.out.println("✅ Database connection test: PASSED");
                 return true;
             } else {
@@ -137,4 +289,4 @@ public class DatabaseConnection {
             return false;
         }
     }
-}
\ No newline at end of file
+}
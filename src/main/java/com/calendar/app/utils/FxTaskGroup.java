@@ -0,0 +1,54 @@
+package com.calendar.app.utils;
+
+import javafx.application.Platform;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Tracks the background loads started by one view and delivers their results
+ * on the JavaFX Application Thread. cancelAll() is called when the user
+ * navigates away so stale results never touch a view that is gone.
+ */
+public class FxTaskGroup {
+    private final Set<CompletableFuture<?>> pending = ConcurrentHashMap.newKeySet();
+    // Bumped by cancelAll(); results from an older generation are dropped
+    private final AtomicInteger generation = new AtomicInteger();
+
+    public <T> CompletableFuture<T> run(CompletableFuture<T> future, Consumer<T> onSuccess) {
+        return run(future, onSuccess, error -> System.err.println("Background load failed: " + error.getMessage()));
+    }
+
+    public <T> CompletableFuture<T> run(CompletableFuture<T> future, Consumer<T> onSuccess, Consumer<Throwable> onError) {
+        int startedIn = generation.get();
+        pending.add(future);
+        future.whenComplete((result, error) -> {
+            pending.remove(future);
+            if (future.isCancelled()) return;
+            Platform.runLater(() -> {
+                // Re-check on the FX thread: cancelAll() may have run while this was queued
+                if (generation.get() != startedIn) return;
+                if (error == null) {
+                    onSuccess.accept(result);
+                } else {
+                    onError.accept(error.getCause() != null ? error.getCause() : error);
+                }
+            });
+        });
+        return future;
+    }
+
+    public void cancelAll() {
+        generation.incrementAndGet();
+        for (CompletableFuture<?> future : pending) {
+            future.cancel(true);
+        }
+        pending.clear();
+    }
+
+    public boolean hasPending() {
+        return !pending.isEmpty();
+    }
+}
@@ -0,0 +1,149 @@
+package com.calendar.app.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Half-open intervals [start, end) with an id each, in a treap ordered by
+ * (start, id) where every node also knows the largest end below it. Add and
+ * remove take O(log n) expected time; overlapping() takes O(log n + k) for
+ * k results, since it skips every subtree that ends before the query starts
+ * or starts after it ends. Not thread-safe.
+ */
+public class IntervalTree<T> {
+
+    private static final class Node<T> {
+        final long start;
+        final long end;
+        final long id;
+        final T value;
+        final int priority = ThreadLocalRandom.current().nextInt();
+        long maxEnd;
+        Node<T> left;
+        Node<T> right;
+
+        Node(long start, long end, long id, T value) {
+            this.start = start;
+            this.end = end;
+            this.id = id;
+            this.value = value;
+            this.maxEnd = end;
+        }
+    }
+
+    private Node<T> root;
+    private int size;
+    // Set by remove() when it found the node
+    private boolean removed;
+
+    public void add(long start, long end, long id, T value) {
+        root = insert(root, new Node<>(start, end, id, value));
+        size++;
+    }
+
+    /**
+     * Removes the interval added with this start and id. Returns false if there is none.
+     */
+    public boolean remove(long start, long id) {
+        removed = false;
+        root = delete(root, start, id);
+        if (removed) size--;
+        return removed;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Values of the intervals that overlap [start, end), in start order.
+     */
+    public List<T> overlapping(long start, long end) {
+        List<T> out = new ArrayList<>();
+        collect(root, start, end, out);
+        return out;
+    }
+
+    private void collect(Node<T> node, long start, long end, List<T> out) {
+        // Nothing below ends after the query starts
+        if (node == null || node.maxEnd <= start) return;
+        collect(node.left, start, end, out);
+        // This node and everything to its right start too late
+        if (node.start >= end) return;
+        if (node.end > start) out.add(node.value);
+        collect(node.right, start, end, out);
+    }
+
+    private static int compare(long start, long id, Node<?> node) {
+        int c = Long.compare(start, node.start);
+        return c != 0 ? c : Long.compare(id, node.id);
+    }
+
+    private Node<T> insert(Node<T> node, Node<T> added) {
+        if (node == null) return added;
+        if (compare(added.start, added.id, node) < 0) {
+            node.left = insert(node.left, added);
+            if (node.left.priority > node.priority) node = rotateRight(node);
+        } else {
+            node.right = insert(node.right, added);
+            if (node.right.priority > node.priority) node = rotateLeft(node);
+        }
+        update(node);
+        return node;
+    }
+
+    private Node<T> delete(Node<T> node, long start, long id) {
+        if (node == null) return null;
+        int c = compare(start, id, node);
+        if (c < 0) {
+            node.left = delete(node.left, start, id);
+        } else if (c > 0) {
+            node.right = delete(node.right, start, id);
+        } else {
+            removed = true;
+            node = merge(node.left, node.right);
+        }
+        if (node != null) update(node);
+        return node;
+    }
+
+    // Joins two treaps where everything in a sorts before everything in b
+    private Node<T> merge(Node<T> a, Node<T> b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        if (a.priority > b.priority) {
+            a.right = merge(a.right, b);
+            update(a);
+            return a;
+        }
+        b.left = merge(a, b.left);
+        update(b);
+        return b;
+    }
+
+    private Node<T> rotateRight(Node<T> node) {
+        Node<T> left = node.left;
+        node.left = left.right;
+        update(node);
+        left.right = node;
+        update(left);
+        return left;
+    }
+
+    private Node<T> rotateLeft(Node<T> node) {
+        Node<T> right = node.right;
+        node.right = right.left;
+        update(node);
+        right.left = node;
+        update(right);
+        return right;
+    }
+
+    private static void update(Node<?> node) {
+        long maxEnd = node.end;
+        if (node.left != null) maxEnd = Math.max(maxEnd, node.left.maxEnd);
+        if (node.right != null) maxEnd = Math.max(maxEnd, node.right.maxEnd);
+        node.maxEnd = maxEnd;
+    }
+}
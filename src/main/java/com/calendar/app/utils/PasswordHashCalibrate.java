@@ -0,0 +1,31 @@
+package com.calendar.app.utils;
+
+import com.calendar.app.services.PasswordHasher;
+
+/**
+ * Picks passwordHashIterations for this machine from a target time per hash.
+ * Run it on hardware like the deployment's:
+ *
+ *   mvn -q compile exec:java -Dexec.mainClass=com.calendar.app.utils.PasswordHashCalibrate -Dexec.args="250"
+ *
+ * The argument is the target in milliseconds (default 250). Each concurrent
+ * login costs one hash, so passwordHashThreads divided by the time per hash
+ * is the most logins per second this instance can verify.
+ */
+public class PasswordHashCalibrate {
+
+    public static void main(String[] args) {
+        double targetMillis = args.length > 0 ? Double.parseDouble(args[0]) : 250;
+        int configured = DatabaseConnection.getPasswordHashIterations();
+        int threads = DatabaseConnection.getPasswordHashThreads();
+
+        double configuredMillis = PasswordHasher.measureMillis(configured);
+        System.out.printf("Configured: %d iterations, %.1f ms per hash, about %.0f logins/s on %d threads%n",
+                configured, configuredMillis, threads * 1000 / configuredMillis, threads);
+
+        int iterations = PasswordHasher.calibrate(targetMillis);
+        double millis = PasswordHasher.measureMillis(iterations);
+        System.out.printf("For %.0f ms: passwordHashIterations=%d (%.1f ms per hash, about %.0f logins/s on %d threads)%n",
+                targetMillis, iterations, millis, threads * 1000 / millis, threads);
+    }
+}
@@ -0,0 +1,118 @@
+package com.calendar.app.utils;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands out read-only connections from a set of replica pools in round-robin
+ * order. A replica whose replication lag is above the limit, or that can't be
+ * reached, is skipped; when none qualify the caller falls back to the primary.
+ */
+public class ReplicaRouter {
+    private final List<Replica> replicas;
+    private final long maxLagSeconds;
+    private final long lagCheckIntervalMillis;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRouter(List<ConnectionPool> pools, long maxLagSeconds, long lagCheckIntervalMillis) {
+        this.replicas = pools.stream().map(Replica::new).toList();
+        this.maxLagSeconds = maxLagSeconds;
+        this.lagCheckIntervalMillis = lagCheckIntervalMillis;
+    }
+
+    /**
+     * Borrows a connection from the next healthy replica, or returns null if
+     * every replica is lagging or down.
+     */
+    public Connection getConnection() {
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            Connection conn = replica.borrowIfFresh();
+            if (conn != null) return conn;
+        }
+        return null;
+    }
+
+    public void shutdown() {
+        for (Replica replica : replicas) {
+            replica.pool.shutdown();
+        }
+    }
+
+    private class Replica {
+        final ConnectionPool pool;
+        volatile long lagCheckedAt;
+        // Lagging or unreachable at the last check
+        volatile boolean lagging;
+
+        Replica(ConnectionPool pool) {
+            this.pool = pool;
+        }
+
+        Connection borrowIfFresh() {
+            long now = System.currentTimeMillis();
+            boolean recheck = now - lagCheckedAt >= lagCheckIntervalMillis;
+            if (lagging && !recheck) return null;
+
+            Connection conn;
+            try {
+                conn = pool.getConnection();
+            } catch (SQLException e) {
+                System.err.println("Replica unavailable, skipping: " + e.getMessage());
+                // Treat it like a lagging one until the next recheck, so reads don't each wait out the timeout
+                lagging = true;
+                lagCheckedAt = now;
+                return null;
+            }
+            if (recheck) {
+                lagging = replicationLag(conn) > maxLagSeconds;
+                lagCheckedAt = now;
+                if (lagging) {
+                    System.err.println("Replica is lagging more than " + maxLagSeconds + "s, routing reads elsewhere");
+                    closeQuietly(conn);
+                    return null;
+                }
+            }
+            return conn;
+        }
+    }
+
+    /**
+     * Seconds behind the source, 0 when the server isn't replicating (e.g. a
+     * plain second instance used for local testing) and Long.MAX_VALUE when
+     * replication is configured but stopped.
+     */
+    private static long replicationLag(Connection conn) {
+        try (Statement stmt = conn.createStatement()) {
+            try {
+                return readLag(stmt, "SHOW REPLICA STATUS", "Seconds_Behind_Source");
+            } catch (SQLException e) {
+                // MySQL before 8.0.22
+                return readLag(stmt, "SHOW SLAVE STATUS", "Seconds_Behind_Master");
+            }
+        } catch (SQLException e) {
+            // No REPLICATION CLIENT privilege: can't tell, so trust the replica
+            return 0;
+        }
+    }
+
+    private static long readLag(Statement stmt, String query, String column) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery(query)) {
+            if (!rs.next()) return 0;
+            long lag = rs.getLong(column);
+            return rs.wasNull() ? Long.MAX_VALUE : lag;
+        }
+    }
+
+    private static void closeQuietly(Connection conn) {
+        try {
+            conn.close();
+        } catch (SQLException ignored) {
+        }
+    }
+}
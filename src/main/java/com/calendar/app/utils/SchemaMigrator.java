@@ -0,0 +1,267 @@
+package com.calendar.app.utils;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Brings the database to the shape the app expects, once, at startup.
+ * Each migration has a version; applied versions are recorded in
+ * schema_version so later starts skip them. Steps check information_schema
+ * before altering, so databases created from schema.sql or patched by older
+ * builds upgrade cleanly too.
+ *
+ * To change the schema, append a new migration to MIGRATIONS - never edit one
+ * that has shipped.
+ */
+public class SchemaMigrator {
+
+    @FunctionalInterface
+    private interface Step {
+        void apply(Connection conn) throws SQLException;
+    }
+
+    private record Migration(int version, String description, Step step) {}
+
+    private static final List<Migration> MIGRATIONS = List.of(
+        new Migration(1, "baseline users, events and event_participants", conn -> {
+            execute(conn, "CREATE TABLE IF NOT EXISTS users (" +
+                    "id INT PRIMARY KEY AUTO_INCREMENT, " +
+                    "username VARCHAR(50) UNIQUE NOT NULL, " +
+                    "password VARCHAR(255) NOT NULL, " +
+                    "email VARCHAR(100) UNIQUE NOT NULL, " +
+                    "full_name VARCHAR(100), " +
+                    "role VARCHAR(20) DEFAULT 'USER', " +
+                    "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, " +
+                    "updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP)");
+            execute(conn, "CREATE TABLE IF NOT EXISTS events (" +
+                    "id INT PRIMARY KEY AUTO_INCREMENT, " +
+                    "title VARCHAR(200) NOT NULL, " +
+                    "description TEXT, " +
+                    "event_date DATE NOT NULL, " +
+                    "start_time TIME NOT NULL, " +
+                    "end_time TIME, " +
+                    "location VARCHAR(200), " +
+                    "contact_phone VARCHAR(50), " +
+                    "category VARCHAR(50) DEFAULT 'Other', " +
+                    "user_id INT NOT NULL, " +
+                    "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, " +
+                    "updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP, " +
+                    "FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE)");
+            execute(conn, "CREATE TABLE IF NOT EXISTS event_participants (" +
+                    "id INT PRIMARY KEY AUTO_INCREMENT, " +
+                    "event_id INT NOT NULL, " +
+                    "user_id INT NOT NULL, " +
+                    "status ENUM('PENDING', 'ACCEPTED', 'DECLINED') DEFAULT 'PENDING', " +
+                    "FOREIGN KEY (event_id) REFERENCES events(id) ON DELETE CASCADE, " +
+                    "FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE, " +
+                    "UNIQUE KEY unique_participation (event_id, user_id))");
+        }),
+        new Migration(2, "events contact, status and free-form category columns", conn -> {
+            addColumnIfMissing(conn, "events", "contact_phone", "VARCHAR(50)");
+            addColumnIfMissing(conn, "events", "contact_email", "VARCHAR(100)");
+            addColumnIfMissing(conn, "events", "status", "VARCHAR(20) DEFAULT 'SCHEDULED'");
+            // schema.sql declared category as an upper-case ENUM, which rejects
+            // the UI's categories (Meeting, Personal, Work, Social, Other)
+            if ("enum".equalsIgnoreCase(columnType(conn, "events", "category"))) {
+                execute(conn, "ALTER TABLE events MODIFY COLUMN category VARCHAR(50) DEFAULT 'Other'");
+            }
+        }),
+        new Migration(3, "users login tracking columns", conn -> {
+            addColumnIfMissing(conn, "users", "last_login", "TIMESTAMP NULL");
+            addColumnIfMissing(conn, "users", "login_attempts", "INT DEFAULT 0");
+            addColumnIfMissing(conn, "users", "account_locked", "BOOLEAN DEFAULT FALSE");
+        }),
+        new Migration(4, "notification_logs table", conn -> {
+            execute(conn, "CREATE TABLE IF NOT EXISTS notification_logs (" +
+                    "id INT PRIMARY KEY AUTO_INCREMENT, " +
+                    "user_id INT NOT NULL, " +
+                    "type VARCHAR(20) NOT NULL, " +
+                    "recipient VARCHAR(255), " +
+                    "message TEXT, " +
+                    "bulk_id VARCHAR(64), " +
+                    "status VARCHAR(20), " +
+                    "sent_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, " +
+                    "FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE)");
+        }),
+        new Migration(5, "events (user_id, event_date, start_time) index", conn -> {
+            // Every per-user query filters on user_id plus a date/time range and
+            // sorts by date and time; one composite index serves them all
+            addIndexIfMissing(conn, "events", "idx_events_user_date_time", "user_id, event_date, start_time");
+        }),
+        new Migration(6, "change tracking for incremental sync", conn -> {
+            // Millisecond updated_at so a sync watermark rarely straddles a tick
+            execute(conn, "ALTER TABLE events MODIFY COLUMN updated_at TIMESTAMP(3) " +
+                    "DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3)");
+            addIndexIfMissing(conn, "events", "idx_events_user_updated", "user_id, updated_at");
+            execute(conn, "CREATE TABLE IF NOT EXISTS event_tombstones (" +
+                    "event_id INT PRIMARY KEY, " +
+                    "user_id INT NOT NULL, " +
+                    "deleted_at TIMESTAMP(3) DEFAULT CURRENT_TIMESTAMP(3), " +
+                    "INDEX idx_tombstones_user_deleted (user_id, deleted_at))");
+            // A trigger catches every delete path, including ad-hoc SQL
+            if (!triggerExists(conn, "events_after_delete")) {
+                execute(conn, "CREATE TRIGGER events_after_delete AFTER DELETE ON events FOR EACH ROW " +
+                        "INSERT INTO event_tombstones (event_id, user_id) VALUES (OLD.id, OLD.user_id) " +
+                        "ON DUPLICATE KEY UPDATE deleted_at = CURRENT_TIMESTAMP(3)");
+            }
+        }),
+        new Migration(7, "events_archive table for completed events", conn -> {
+            // One partition per month, added by EventArchiver as it goes. The
+            // partition key has to be part of the primary key, and partitioned
+            // tables can't have foreign keys.
+            execute(conn, "CREATE TABLE IF NOT EXISTS events_archive (" +
+                    "id INT NOT NULL, " +
+                    "title VARCHAR(200) NOT NULL, " +
+                    "description TEXT, " +
+                    "event_date DATE NOT NULL, " +
+                    "start_time TIME NOT NULL, " +
+                    "end_time TIME, " +
+                    "location VARCHAR(200), " +
+                    "contact_phone VARCHAR(50), " +
+                    "contact_email VARCHAR(100), " +
+                    "category VARCHAR(50), " +
+                    "status VARCHAR(20), " +
+                    "user_id INT NOT NULL, " +
+                    "created_at TIMESTAMP NULL, " +
+                    "updated_at TIMESTAMP(3) NULL, " +
+                    "archived_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, " +
+                    "PRIMARY KEY (id, event_date), " +
+                    "INDEX idx_archive_user_date_time (user_id, event_date, start_time)) " +
+                    "PARTITION BY RANGE COLUMNS (event_date) (PARTITION p_future VALUES LESS THAN (MAXVALUE))");
+            addIndexIfMissing(conn, "events", "idx_events_status_date", "status, event_date");
+            // Deleting an archived event must reach incremental sync like any other delete
+            if (!triggerExists(conn, "events_archive_after_delete")) {
+                execute(conn, "CREATE TRIGGER events_archive_after_delete AFTER DELETE ON events_archive FOR EACH ROW " +
+                        "INSERT INTO event_tombstones (event_id, user_id) VALUES (OLD.id, OLD.user_id) " +
+                        "ON DUPLICATE KEY UPDATE deleted_at = CURRENT_TIMESTAMP(3)");
+            }
+        }),
+        new Migration(8, "derive completion from event_date instead of status", conn -> {
+            // Nothing writes status = 'COMPLETED' any more; the archiver picks
+            // events by date alone
+            addIndexIfMissing(conn, "events", "idx_events_date", "event_date");
+            dropIndexIfExists(conn, "events", "idx_events_status_date");
+        }),
+        new Migration(9, "notification_logs history and retention indexes", conn -> {
+            // Message history reads one user's newest rows; the retention purge
+            // deletes the oldest rows across all users
+            addIndexIfMissing(conn, "notification_logs", "idx_notification_logs_user_sent", "user_id, sent_at");
+            addIndexIfMissing(conn, "notification_logs", "idx_notification_logs_sent", "sent_at");
+        }),
+        new Migration(10, "location index for double-booking checks", conn -> {
+            // findConflicts looks for anyone's events in the same place on nearby days
+            addIndexIfMissing(conn, "events", "idx_events_location_date", "location, event_date");
+        })
+    );
+
+    /**
+     * Applies every migration newer than the recorded schema version. A MySQL
+     * named lock keeps two app instances from migrating at the same time.
+     */
+    public static void migrate(Connection conn) throws SQLException {
+        execute(conn, "CREATE TABLE IF NOT EXISTS schema_version (" +
+                "version INT PRIMARY KEY, " +
+                "description VARCHAR(200) NOT NULL, " +
+                "installed_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP)");
+
+        try (Statement lock = conn.createStatement();
+             ResultSet rs = lock.executeQuery("SELECT GET_LOCK('event_management.schema_migration', 30)")) {
+            if (!rs.next() || rs.getInt(1) != 1) {
+                throw new SQLException("Timed out waiting for the schema migration lock");
+            }
+        }
+        try {
+            int current = currentVersion(conn);
+            List<Migration> pending = new ArrayList<>();
+            for (Migration migration : MIGRATIONS) {
+                if (migration.version() > current) pending.add(migration);
+            }
+            for (Migration migration : pending) {
+                System.out.println("🛠️ Applying schema migration V" + migration.version() + ": " + migration.description());
+                // DDL commits implicitly in MySQL, so each step is written to be safe to re-run
+                migration.step().apply(conn);
+                try (PreparedStatement stmt = conn.prepareStatement(
+                        "INSERT INTO schema_version (version, description) VALUES (?, ?)")) {
+                    stmt.setInt(1, migration.version());
+                    stmt.setString(2, migration.description());
+                    stmt.executeUpdate();
+                }
+            }
+            if (pending.isEmpty()) {
+                System.out.println("✅ Database schema is up to date (V" + current + ")");
+            }
+        } finally {
+            try (Statement unlock = conn.createStatement()) {
+                unlock.execute("DO RELEASE_LOCK('event_management.schema_migration')");
+            }
+        }
+    }
+
+    private static int currentVersion(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(version), 0) FROM schema_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    private static void execute(Connection conn, String sql) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(sql);
+        }
+    }
+
+    private static void addColumnIfMissing(Connection conn, String table, String column, String definition) throws SQLException {
+        if (columnType(conn, table, column) == null) {
+            execute(conn, "ALTER TABLE " + table + " ADD COLUMN " + column + " " + definition);
+        }
+    }
+
+    private static void addIndexIfMissing(Connection conn, String table, String index, String columns) throws SQLException {
+        if (indexExists(conn, table, index)) return;
+        execute(conn, "CREATE INDEX " + index + " ON " + table + " (" + columns + ")");
+    }
+    
+    private static void dropIndexIfExists(Connection conn, String table, String index) throws SQLException {
+        if (!indexExists(conn, table, index)) return;
+        execute(conn, "DROP INDEX " + index + " ON " + table);
+    }
+    
+    private static boolean indexExists(Connection conn, String table, String index) throws SQLException {
+        String sql = "SELECT 1 FROM information_schema.STATISTICS " +
+                     "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND INDEX_NAME = ? LIMIT 1";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, table);
+            stmt.setString(2, index);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    private static boolean triggerExists(Connection conn, String trigger) throws SQLException {
+        String sql = "SELECT 1 FROM information_schema.TRIGGERS WHERE TRIGGER_SCHEMA = DATABASE() AND TRIGGER_NAME = ?";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, trigger);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    private static String columnType(Connection conn, String table, String column) throws SQLException {
+        String sql = "SELECT DATA_TYPE FROM information_schema.COLUMNS " +
+                     "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND COLUMN_NAME = ?";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, table);
+            stmt.setString(2, column);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getString(1) : null;
+            }
+        }
+    }
+}
@@ -1,4 +1,6 @@
 ﻿-- Event Management System Database Schema
+-- The app applies the same shape on startup through SchemaMigrator and records
+-- it in schema_version; change the schema by adding a migration there as well.
 
 CREATE DATABASE IF NOT EXISTS event_management;
 USE event_management;
@@ -12,7 +14,10 @@ CREATE TABLE IF NOT EXISTS users (
     full_name VARCHAR(100),
     role ENUM('ADMIN', 'USER') DEFAULT 'USER',
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    last_login TIMESTAMP NULL,
+    login_attempts INT DEFAULT 0,
+    account_locked BOOLEAN DEFAULT FALSE
 );
 
 -- Events table
@@ -24,15 +29,68 @@ CREATE TABLE IF NOT EXISTS events (
     start_time TIME NOT NULL,
     end_time TIME,
     location VARCHAR(200),
-    contact_phone VARCHAR(20),
-    category ENUM('MEETING', 'BIRTHDAY', 'HOLIDAY', 'REMINDER', 'OTHER') DEFAULT 'OTHER',
+    contact_phone VARCHAR(50),
+    contact_email VARCHAR(100),
+    category VARCHAR(50) DEFAULT 'Other',
+    status VARCHAR(20) DEFAULT 'SCHEDULED',
     priority ENUM('LOW', 'MEDIUM', 'HIGH') DEFAULT 'MEDIUM',
     user_id INT NOT NULL,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
-    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+    updated_at TIMESTAMP(3) DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3),
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    -- Per-user date/time range scans (dashboard, reminders, calendar, event list)
+    INDEX idx_events_user_date_time (user_id, event_date, start_time),
+    -- Incremental sync: rows changed since a watermark
+    INDEX idx_events_user_updated (user_id, updated_at),
+    -- Archiver: events past the archive age
+    INDEX idx_events_date (event_date),
+    -- Double-booking check: anyone's events at a location on nearby days
+    INDEX idx_events_location_date (location, event_date)
+);
+
+-- Completed events moved out of events by EventArchiver, one partition per month.
+-- Partitioned tables can't have foreign keys, so there is none to users.
+CREATE TABLE IF NOT EXISTS events_archive (
+    id INT NOT NULL,
+    title VARCHAR(200) NOT NULL,
+    description TEXT,
+    event_date DATE NOT NULL,
+    start_time TIME NOT NULL,
+    end_time TIME,
+    location VARCHAR(200),
+    contact_phone VARCHAR(50),
+    contact_email VARCHAR(100),
+    category VARCHAR(50),
+    status VARCHAR(20),
+    user_id INT NOT NULL,
+    created_at TIMESTAMP NULL,
+    updated_at TIMESTAMP(3) NULL,
+    archived_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (id, event_date),
+    INDEX idx_archive_user_date_time (user_id, event_date, start_time)
+)
+PARTITION BY RANGE COLUMNS (event_date) (
+    PARTITION p_future VALUES LESS THAN (MAXVALUE)
+);
+
+-- Deleted event ids, kept a few days so incremental sync can report deletions
+CREATE TABLE IF NOT EXISTS event_tombstones (
+    event_id INT PRIMARY KEY,
+    user_id INT NOT NULL,
+    deleted_at TIMESTAMP(3) DEFAULT CURRENT_TIMESTAMP(3),
+    INDEX idx_tombstones_user_deleted (user_id, deleted_at)
 );
 
+DROP TRIGGER IF EXISTS events_after_delete;
+CREATE TRIGGER events_after_delete AFTER DELETE ON events FOR EACH ROW
+    INSERT INTO event_tombstones (event_id, user_id) VALUES (OLD.id, OLD.user_id)
+    ON DUPLICATE KEY UPDATE deleted_at = CURRENT_TIMESTAMP(3);
+
+DROP TRIGGER IF EXISTS events_archive_after_delete;
+CREATE TRIGGER events_archive_after_delete AFTER DELETE ON events_archive FOR EACH ROW
+    INSERT INTO event_tombstones (event_id, user_id) VALUES (OLD.id, OLD.user_id)
+    ON DUPLICATE KEY UPDATE deleted_at = CURRENT_TIMESTAMP(3);
+
 -- Event participants table
 CREATE TABLE IF NOT EXISTS event_participants (
     id INT PRIMARY KEY AUTO_INCREMENT,
@@ -44,6 +102,23 @@ CREATE TABLE IF NOT EXISTS event_participants (
     UNIQUE KEY unique_participation (event_id, user_id)
 );
 
+-- Notification log (SMS / email history)
+CREATE TABLE IF NOT EXISTS notification_logs (
+    id INT PRIMARY KEY AUTO_INCREMENT,
+    user_id INT NOT NULL,
+    type VARCHAR(20) NOT NULL,
+    recipient VARCHAR(255),
+    message TEXT,
+    bulk_id VARCHAR(64),
+    status VARCHAR(20),
+    sent_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    -- Message history: one user's newest rows
+    INDEX idx_notification_logs_user_sent (user_id, sent_at),
+    -- Retention purge: oldest rows first
+    INDEX idx_notification_logs_sent (sent_at)
+);
+
 -- Insert default user mek (password: admin123)
 INSERT INTO users (username, password, email, full_name, role) 
 VALUES ('mek', '$2a$10$YourHashedPasswordHere', 'mek@calendar.com', 'Mek', 'ADMIN')
@@ -54,7 +129,7 @@ DELETE FROM users WHERE username != 'mek';
 
 -- Insert test events
 INSERT INTO events (title, description, event_date, start_time, end_time, location, category, priority, user_id) VALUES
-('Team Meeting', 'Weekly team sync up', CURDATE() + INTERVAL 1 DAY, '10:00:00', '11:00:00', 'Conference Room A', 'MEETING', 'HIGH', (SELECT id FROM users WHERE username = 'mek')),
-('Birthday Party', 'John''s birthday celebration', CURDATE() + INTERVAL 3 DAY, '18:00:00', '22:00:00', 'Main Hall', 'BIRTHDAY', 'MEDIUM', (SELECT id FROM users WHERE username = 'mek')),
-('Project Deadline', 'Final submission for Project X', CURDATE() + INTERVAL 7 DAY, '23:59:59', '23:59:59', 'Office', 'REMINDER', 'HIGH', (SELECT id FROM users WHERE username = 'mek'))
+('Team Meeting', 'Weekly team sync up', CURDATE() + INTERVAL 1 DAY, '10:00:00', '11:00:00', 'Conference Room A', 'Meeting', 'HIGH', (SELECT id FROM users WHERE username = 'mek')),
+('Birthday Party', 'John''s birthday celebration', CURDATE() + INTERVAL 3 DAY, '18:00:00', '22:00:00', 'Main Hall', 'Social', 'MEDIUM', (SELECT id FROM users WHERE username = 'mek')),
+('Project Deadline', 'Final submission for Project X', CURDATE() + INTERVAL 7 DAY, '23:59:59', '23:59:59', 'Office', 'Work', 'HIGH', (SELECT id FROM users WHERE username = 'mek'))
 ON DUPLICATE KEY UPDATE updated_at = CURRENT_TIMESTAMP;
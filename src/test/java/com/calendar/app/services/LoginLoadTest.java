@@ -0,0 +1,80 @@
+package com.calendar.app.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.abort;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import com.calendar.app.utils.DatabaseConnection;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Measures login latency under concurrent logins against the database in
+ * ems_settings.properties. Needs an existing account, so it only runs when
+ * one is given:
+ *
+ *   mvn test -Dtest=LoginLoadTest -Dems.test.username=alice -Dems.test.password=secret
+ *
+ * ems.test.clients and ems.test.loginsPerClient default to 32 and 20. Fails
+ * if any login is refused; the latencies are printed, not asserted.
+ */
+class LoginLoadTest {
+
+    @Test
+    void concurrentLogins() throws Exception {
+        String username = System.getProperty("ems.test.username");
+        String password = System.getProperty("ems.test.password");
+        assumeTrue(username != null && password != null, "ems.test.username and ems.test.password not set");
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            // Just checking the database is there
+        } catch (SQLException e) {
+            abort("No database to log in against: " + e.getMessage());
+        }
+        int clients = Integer.getInteger("ems.test.clients", 32);
+        int loginsPerClient = Integer.getInteger("ems.test.loginsPerClient", 20);
+
+        AuthService authService = new AuthService();
+        // Warm up the pool and the JIT so the first logins don't skew the numbers
+        for (int i = 0; i < 20; i++) authService.authenticate(username, password);
+
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        int failures = 0;
+        long started = System.nanoTime();
+        try (ExecutorService executor = Executors.newFixedThreadPool(clients)) {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int c = 0; c < clients; c++) {
+                results.add(executor.submit(() -> {
+                    int failed = 0;
+                    for (int i = 0; i < loginsPerClient; i++) {
+                        long t0 = System.nanoTime();
+                        if (authService.authenticate(username, password) == null) failed++;
+                        latencies.add(System.nanoTime() - t0);
+                    }
+                    return failed;
+                }));
+            }
+            for (Future<Integer> result : results) failures += result.get();
+        }
+        long elapsed = System.nanoTime() - started;
+
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        System.out.printf("%d logins from %d clients in %d ms (%.0f/s)%n",
+                sorted.size(), clients, elapsed / 1_000_000, sorted.size() * 1e9 / elapsed);
+        System.out.printf("latency p50 %.1f ms, p95 %.1f ms, p99 %.1f ms, max %.1f ms%n",
+                percentile(sorted, 50), percentile(sorted, 95), percentile(sorted, 99), sorted.get(sorted.size() - 1) / 1e6);
+        assertEquals(0, failures, failures + " logins failed");
+    }
+
+    private static double percentile(List<Long> sorted, int p) {
+        int index = (int) Math.ceil(p / 100.0 * sorted.size()) - 1;
+        return sorted.get(Math.max(index, 0)) / 1e6;
+    }
+}
@@ -0,0 +1,67 @@
+package com.calendar.app.services;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+class PasswordHasherTest {
+
+    // Generous for a few hashes at the default cost; a deadlock never finishes
+    private static final Duration LIMIT = Duration.ofSeconds(30);
+
+    @Test
+    void hashThenVerify() {
+        assertTimeoutPreemptively(LIMIT, () -> {
+            String stored = PasswordHasher.hash("secret");
+            assertTrue(stored.startsWith("pbkdf2-sha256$"));
+            assertTrue(PasswordHasher.verify("secret", stored));
+            assertFalse(PasswordHasher.verify("Secret", stored));
+            assertFalse(PasswordHasher.needsRehash(stored));
+        });
+    }
+
+    @Test
+    void saltsDiffer() {
+        assertTimeoutPreemptively(LIMIT, () ->
+                assertNotEquals(PasswordHasher.hash("secret"), PasswordHasher.hash("secret")));
+    }
+
+    @Test
+    void unknownUserNeverMatches() {
+        assertTimeoutPreemptively(LIMIT, () -> {
+            assertFalse(PasswordHasher.verify("secret", null));
+            // The dummy hash stands in for a missing one; it must not match its own input either
+            assertFalse(PasswordHasher.verify("no-such-user", null));
+        });
+    }
+
+    @Test
+    void legacyPlainTextVerifiesAndNeedsRehash() {
+        assertTimeoutPreemptively(LIMIT, () -> {
+            assertTrue(PasswordHasher.verify("secret", "secret"));
+            assertFalse(PasswordHasher.verify("secret", "other"));
+            assertTrue(PasswordHasher.needsRehash("secret"));
+        });
+    }
+
+    @Test
+    void otherCostNeedsRehash() {
+        assertTimeoutPreemptively(LIMIT, () -> {
+            String stored = PasswordHasher.hash("secret");
+            String cheaper = stored.replaceFirst("\\$\\d+\\$", "\\$1000\\$");
+            assertTrue(PasswordHasher.needsRehash(cheaper));
+        });
+    }
+
+    @Test
+    void unreadableHashIsRejected() {
+        assertTimeoutPreemptively(LIMIT, () -> {
+            assertFalse(PasswordHasher.verify("secret", "pbkdf2-sha256$x$y"));
+            assertFalse(PasswordHasher.verify("secret", "pbkdf2-sha256$1000$!!$!!"));
+        });
+    }
+}
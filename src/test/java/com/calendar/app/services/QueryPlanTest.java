@@ -0,0 +1,125 @@
+package com.calendar.app.services;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.abort;
+
+import com.calendar.app.utils.DatabaseConnection;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Runs EXPLAIN on the hot per-user event statements, built from the same SQL
+ * DatabaseService and EventArchiver execute, and fails on any that scan a
+ * whole events or events_archive table. Needs the database configured in
+ * ems_settings.properties; skipped when it can't be reached.
+ */
+class QueryPlanTest {
+
+    private static final int USER_ID = 1;
+
+    private Connection conn;
+
+    @BeforeEach
+    void connect() {
+        try {
+            conn = DatabaseConnection.getConnection();
+        } catch (SQLException e) {
+            abort("No database to explain against: " + e.getMessage());
+        }
+    }
+
+    @AfterEach
+    void close() throws SQLException {
+        if (conn != null) conn.close();
+    }
+
+    @Test
+    void storeLoad() throws SQLException {
+        assertIndexed(DatabaseService.LIVE_EVENTS_SQL, USER_ID);
+    }
+
+    @Test
+    void dashboardCountersLoad() throws SQLException {
+        assertIndexed(DatabaseService.COUNTED_EVENTS_SQL, USER_ID, USER_ID);
+    }
+
+    @Test
+    void dashboardCountersReconcile() throws SQLException {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        assertIndexed(DatabaseService.DASHBOARD_STATS_SQL, now, now, now, USER_ID, USER_ID);
+    }
+
+    @Test
+    void eventsStartingBetween() throws SQLException {
+        assertIndexed(DatabaseService.STARTING_BETWEEN_SQL,
+                USER_ID, Date.valueOf(LocalDate.now()), Date.valueOf(LocalDate.now().plusDays(4)));
+    }
+
+    @Test
+    void eventsInRange() throws SQLException {
+        Date from = Date.valueOf(LocalDate.now().withDayOfMonth(1));
+        Date to = Date.valueOf(LocalDate.now().withDayOfMonth(1).plusMonths(1));
+        assertIndexed(DatabaseService.rangeSql(false), USER_ID, from, to);
+        assertIndexed(DatabaseService.rangeSql(true), USER_ID, from, to, USER_ID, from, to);
+    }
+
+    @Test
+    void userEventsPage() throws SQLException {
+        Date today = Date.valueOf(LocalDate.now());
+        Time at = Time.valueOf(LocalTime.of(10, 5));
+        for (String table : List.of("events", "events_archive")) {
+            assertIndexed(DatabaseService.pageSql(table, false, false), USER_ID, 100);
+            assertIndexed(DatabaseService.pageSql(table, false, true),
+                    USER_ID, today, today, at, at, Integer.MAX_VALUE, 100);
+            assertIndexed(DatabaseService.pageSql(table, true, true),
+                    USER_ID, "%meet%", "%meet%", "%meet%", today, today, at, at, Integer.MAX_VALUE, 100);
+        }
+    }
+
+    @Test
+    void conflicts() throws SQLException {
+        Date from = Date.valueOf(LocalDate.now().minusDays(1));
+        Date to = Date.valueOf(LocalDate.now().plusDays(1));
+        assertIndexed(DatabaseService.overlappingSql("user_id = ?"), USER_ID, from, to, 0);
+        assertIndexed(DatabaseService.overlappingSql("location = ?"), "Room 1", from, to, 0);
+    }
+
+    @Test
+    void archiverChunk() throws SQLException {
+        Date cutoff = Date.valueOf(LocalDate.now().minusDays(DatabaseConnection.getArchiveAfterDays()));
+        assertIndexed(EventArchiver.DUE_CHUNK_SQL, cutoff, 500);
+    }
+
+    private void assertIndexed(String sql, Object... params) throws SQLException {
+        List<String> scans = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement("EXPLAIN " + sql)) {
+            for (int i = 0; i < params.length; i++) {
+                stmt.setObject(i + 1, params[i]);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    // Derived and union result rows are built from the tables above them
+                    String table = rs.getString("table");
+                    if (!"events".equals(table) && !"events_archive".equals(table)) continue;
+                    String type = rs.getString("type");
+                    String key = rs.getString("key");
+                    if ("ALL".equals(type) || key == null) scans.add(table + " (type=" + type + ", key=" + key + ")");
+                }
+            }
+        }
+        assertTrue(scans.isEmpty(), "Full table scan of " + String.join(", ", scans) + " in: " + sql);
+    }
+}
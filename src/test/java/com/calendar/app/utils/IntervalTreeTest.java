@@ -0,0 +1,127 @@
+package com.calendar.app.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the IntervalTree behind EventIndex's conflict check against a linear
+ * scan, and times one-hour checks over one user's worth of events:
+ *
+ *   mvn test -Dtest=IntervalTreeTest -Dems.test.events=100000
+ */
+class IntervalTreeTest {
+
+    // Spread over about three years, 15 minutes to 3 hours long, like a busy calendar
+    private static final long SPAN = 3L * 365 * 1440;
+    private static final int QUERIES = 100_000;
+
+    private final Random random = new Random(42);
+
+    @Test
+    void overlappingMatchesLinearScan() {
+        long[][] events = randomEvents(10_000);
+        IntervalTree<Integer> tree = treeOf(events);
+        assertEquals(events.length, tree.size());
+        for (int q = 0; q < 500; q++) {
+            long start = (long) (random.nextDouble() * SPAN);
+            long end = start + 1 + random.nextInt(240);
+            assertEquals(linearScan(events, start, end), sorted(tree.overlapping(start, end)), "[" + start + ", " + end + ")");
+        }
+    }
+
+    @Test
+    void touchingIntervalsDontOverlap() {
+        IntervalTree<Integer> tree = new IntervalTree<>();
+        tree.add(60, 120, 1, 1);
+        assertTrue(tree.overlapping(0, 60).isEmpty());
+        assertTrue(tree.overlapping(120, 180).isEmpty());
+        assertEquals(List.of(1), tree.overlapping(119, 121));
+    }
+
+    @Test
+    void removeKeepsAnswersRight() {
+        long[][] events = randomEvents(5_000);
+        IntervalTree<Integer> tree = treeOf(events);
+        // Drop every other event, as edits and deletes would
+        List<long[]> kept = new ArrayList<>();
+        for (int i = 0; i < events.length; i++) {
+            if (i % 2 == 0) assertTrue(tree.remove(events[i][0], i));
+            else kept.add(events[i]);
+        }
+        assertFalse(tree.remove(events[0][0], 0));
+        assertEquals(kept.size(), tree.size());
+        for (int q = 0; q < 500; q++) {
+            long start = (long) (random.nextDouble() * SPAN);
+            long end = start + 60;
+            assertEquals(linearScan(kept.toArray(new long[0][]), start, end), sorted(tree.overlapping(start, end)));
+        }
+    }
+
+    @Test
+    void conflictCheckLatency() {
+        int count = Integer.getInteger("ems.test.events", 100_000);
+        long buildStart = System.nanoTime();
+        IntervalTree<Integer> tree = treeOf(randomEvents(count));
+        long buildMs = (System.nanoTime() - buildStart) / 1_000_000;
+
+        // Warm up, then time one-hour checks
+        long found = 0;
+        for (int q = 0; q < QUERIES; q++) {
+            long start = (long) (random.nextDouble() * SPAN);
+            found += tree.overlapping(start, start + 60).size();
+        }
+        long[] nanos = new long[QUERIES];
+        for (int q = 0; q < QUERIES; q++) {
+            long start = (long) (random.nextDouble() * SPAN);
+            long t0 = System.nanoTime();
+            List<Integer> conflicts = tree.overlapping(start, start + 60);
+            nanos[q] = System.nanoTime() - t0;
+            found += conflicts.size();
+        }
+        Arrays.sort(nanos);
+        double avg = Arrays.stream(nanos).average().orElse(0) / 1000;
+
+        System.out.printf("%d events built in %d ms; %d checks (avg %.1f conflicts)%n",
+                count, buildMs, QUERIES, found / (2.0 * QUERIES));
+        System.out.printf("check latency: avg %.2f µs, p50 %.2f µs, p99 %.2f µs, max %.2f µs%n",
+                avg, nanos[QUERIES / 2] / 1000.0, nanos[QUERIES * 99 / 100] / 1000.0, nanos[QUERIES - 1] / 1000.0);
+    }
+
+    // {start, end, id} with the id the index into the array
+    private long[][] randomEvents(int count) {
+        long[][] events = new long[count][];
+        for (int i = 0; i < count; i++) {
+            long start = (long) (random.nextDouble() * SPAN);
+            events[i] = new long[] {start, start + 15 + random.nextInt(166), i};
+        }
+        return events;
+    }
+
+    private static IntervalTree<Integer> treeOf(long[][] events) {
+        IntervalTree<Integer> tree = new IntervalTree<>();
+        for (long[] event : events) tree.add(event[0], event[1], event[2], (int) event[2]);
+        return tree;
+    }
+
+    private static List<Integer> linearScan(long[][] events, long start, long end) {
+        List<Integer> ids = new ArrayList<>();
+        for (long[] event : events) {
+            if (event[0] < end && event[1] > start) ids.add((int) event[2]);
+        }
+        return sorted(ids);
+    }
+
+    private static List<Integer> sorted(List<Integer> ids) {
+        List<Integer> copy = new ArrayList<>(ids);
+        Collections.sort(copy);
+        return copy;
+    }
+}
@@ -0,0 +1,88 @@
+package com.calendar.app.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.abort;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compares pinging every borrowed connection with pinging only those idle
+ * past dbPoolValidationIdleMs, against the database in ems_settings.properties:
+ *
+ *   mvn test -Dtest=PoolValidationTest -Dems.test.borrows=5000 -Dems.test.pauseMs=0
+ *
+ * Each borrow runs one SELECT 1 and returns the connection; the report gives
+ * round trips (queries plus isValid() pings) and the latency of borrow, query
+ * and return together. Keepalive is off in both runs so only the borrow path
+ * is measured. Skipped when the database can't be reached.
+ */
+class PoolValidationTest {
+
+    @Test
+    void idleThresholdSavesPings() throws Exception {
+        int borrows = Integer.getInteger("ems.test.borrows", 5_000);
+        long pauseMillis = Long.getLong("ems.test.pauseMs", 0);
+        long threshold = DatabaseConnection.getPoolValidationIdleMs();
+
+        // -1: every connection counts as idle, so every borrow pings it
+        long everyBorrow = run("validate every borrow", -1, borrows, pauseMillis);
+        long idleOnly = run("validate idle > " + threshold + " ms", threshold, borrows, pauseMillis);
+
+        assertEquals(borrows, everyBorrow);
+        if (threshold > 0 && pauseMillis * 2 < threshold) {
+            assertTrue(idleOnly < everyBorrow, idleOnly + " pings with the idle threshold");
+        }
+    }
+
+    // Returns the number of pings during the timed borrows
+    private static long run(String label, long validationIdleMs, int borrows, long pauseMillis)
+            throws InterruptedException {
+        ConnectionPool pool;
+        try {
+            pool = DatabaseConnection.newPool(validationIdleMs, 0);
+        } catch (SQLException e) {
+            abort("No database to borrow from: " + e.getMessage());
+            return 0;
+        }
+        try {
+            // Warm up the connections, statement cache and JIT
+            for (int i = 0; i < 200; i++) selectOne(pool);
+            long validationsBefore = pool.getValidationCount();
+
+            long[] nanos = new long[borrows];
+            for (int i = 0; i < borrows; i++) {
+                long t0 = System.nanoTime();
+                selectOne(pool);
+                nanos[i] = System.nanoTime() - t0;
+                if (pauseMillis > 0) Thread.sleep(pauseMillis);
+            }
+            long validations = pool.getValidationCount() - validationsBefore;
+
+            Arrays.sort(nanos);
+            double avg = Arrays.stream(nanos).average().orElse(0) / 1e6;
+            System.out.printf("%-28s %d borrows, %d round trips (%d pings)%n",
+                    label + ":", borrows, borrows + validations, validations);
+            System.out.printf("%-28s avg %.3f ms, p50 %.3f ms, p99 %.3f ms, max %.3f ms%n", "",
+                    avg, nanos[borrows / 2] / 1e6, nanos[borrows * 99 / 100] / 1e6, nanos[borrows - 1] / 1e6);
+            return validations;
+        } catch (SQLException e) {
+            throw new AssertionError("Borrow failed: " + e.getMessage(), e);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static void selectOne(ConnectionPool pool) throws SQLException {
+        try (Connection conn = pool.getConnection();
+             PreparedStatement stmt = conn.prepareStatement("SELECT 1");
+             ResultSet rs = stmt.executeQuery()) {
+            rs.next();
+        }
+    }
+}